@@ -0,0 +1,169 @@
+package io.java.jpath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic corpora of path expressions shared by the benchmarks.
+ */
+public final class PathCorpus {
+
+    public static final String DOT = "dot";
+    public static final String BRACKET = "bracket";
+    public static final String FILTER = "filter";
+    public static final String JSON_LITERAL = "json";
+    public static final String LONG_IDENTIFIER = "long";
+    public static final String MIXED = "mixed";
+
+    private static final int SIZE = 64;
+
+    private PathCorpus() {
+    }
+
+    public static String[] of(String name) {
+        switch (name) {
+            case DOT:
+                return dotPaths();
+            case BRACKET:
+                return bracketPaths();
+            case FILTER:
+                return filterPaths();
+            case JSON_LITERAL:
+                return jsonLiteralPaths();
+            case LONG_IDENTIFIER:
+                return longIdentifierPaths();
+            case MIXED:
+                return mixed();
+            default:
+                throw new IllegalArgumentException("Unknown corpus: " + name);
+        }
+    }
+
+    static String[] dotPaths() {
+        Random random = new Random(1);
+        String[] paths = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            StringBuilder sb = new StringBuilder("$");
+            int depth = 2 + random.nextInt(4);
+            for (int d = 0; d < depth; d++) {
+                sb.append('.').append(identifier(random));
+            }
+            paths[i] = sb.toString();
+        }
+        return paths;
+    }
+
+    static String[] bracketPaths() {
+        Random random = new Random(2);
+        String[] paths = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            StringBuilder sb = new StringBuilder("$");
+            int depth = 8 + random.nextInt(8);
+            for (int d = 0; d < depth; d++) {
+                switch (random.nextInt(5)) {
+                    case 0:
+                        sb.append("['").append(identifier(random)).append("']");
+                        break;
+                    case 1:
+                        sb.append("[\"").append(identifier(random)).append("\", \"").append(identifier(random)).append("\"]");
+                        break;
+                    case 2:
+                        sb.append('[').append(random.nextInt(100)).append(']');
+                        break;
+                    case 3:
+                        sb.append('[').append(random.nextInt(10)).append(':').append(10 + random.nextInt(10)).append(":2]");
+                        break;
+                    default:
+                        sb.append("[*]");
+                }
+            }
+            paths[i] = sb.toString();
+        }
+        return paths;
+    }
+
+    static String[] filterPaths() {
+        Random random = new Random(3);
+        String[] paths = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            paths[i] = "$.store.book[?(" + expression(random, 3) + ")].title";
+        }
+        return paths;
+    }
+
+    static String[] jsonLiteralPaths() {
+        Random random = new Random(4);
+        String[] paths = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            StringBuilder sb = new StringBuilder("$.events[?(@.tags == [");
+            int size = 100 + random.nextInt(400);
+            for (int e = 0; e < size; e++) {
+                if (e > 0) {
+                    sb.append(", ");
+                }
+                if (random.nextBoolean()) {
+                    sb.append('\'').append(identifier(random)).append('\'');
+                } else {
+                    sb.append("{\"id\": [").append(random.nextInt(100000)).append(", ").append(random.nextBoolean()).append("]}");
+                }
+            }
+            paths[i] = sb.append("])].id").toString();
+        }
+        return paths;
+    }
+
+    static String[] longIdentifierPaths() {
+        Random random = new Random(5);
+        String[] paths = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            StringBuilder sb = new StringBuilder("$");
+            int depth = 4 + random.nextInt(4);
+            for (int d = 0; d < depth; d++) {
+                sb.append('.');
+                for (int n = 8 + random.nextInt(8); n > 0; n--) {
+                    sb.append(identifier(random));
+                }
+            }
+            paths[i] = sb.toString();
+        }
+        return paths;
+    }
+
+    static String[] mixed() {
+        List<String> paths = new ArrayList<>();
+        String[][] all = {dotPaths(), bracketPaths(), filterPaths(), jsonLiteralPaths()};
+        for (int i = 0; i < SIZE / all.length; i++) {
+            for (String[] corpus : all) {
+                paths.add(corpus[i]);
+            }
+        }
+        return paths.toArray(new String[0]);
+    }
+
+    private static String expression(Random random, int depth) {
+        if (depth == 0 || random.nextInt(3) == 0) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    return "@." + identifier(random) + " < " + random.nextInt(1000) + "." + random.nextInt(100);
+                case 1:
+                    return "@['" + identifier(random) + "'] == '" + identifier(random) + "'";
+                case 2:
+                    return "@." + identifier(random) + " =~ /" + identifier(random) + ".*/i";
+                default:
+                    return "!@." + identifier(random);
+            }
+        }
+        String operator = random.nextBoolean() ? " && " : " || ";
+        return "(" + expression(random, depth - 1) + operator + expression(random, depth - 1) + ")";
+    }
+
+    private static String identifier(Random random) {
+        int length = 3 + random.nextInt(12);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of small event documents, evaluated one by one versus through a {@link BatchEvaluator} on the
+ * caller thread and on the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class BatchEvaluatorBenchmark {
+
+    @Param({"50000"})
+    public int documents;
+
+    @Param({"$.id", "$.payload.values[*]"})
+    public String path;
+
+    private List<byte[]> batch;
+    private Path compiled;
+    private BatchEvaluator sequential;
+    private BatchEvaluator parallel;
+
+    @Setup
+    public void setup() {
+        String events = StreamingEvaluatorBenchmark.document(documents);
+        batch = new ArrayList<>();
+        for (JsonNode event : Json.readTree(events).get("events")) {
+            batch.add(event.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        compiled = PathParser.parse(path);
+        sequential = BatchEvaluator.of(compiled);
+        parallel = BatchEvaluator.of(compiled, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism() + 1);
+    }
+
+    @Benchmark
+    public void oneByOne(Blackhole bh) {
+        for (byte[] document : batch) {
+            bh.consume(StreamingEvaluator.evaluate(compiled, document));
+        }
+    }
+
+    @Benchmark
+    public void batch(Blackhole bh) {
+        bh.consume(sequential.evaluateAll(batch));
+    }
+
+    @Benchmark
+    public void batchParallel(Blackhole bh) {
+        bh.consume(parallel.evaluateAll(batch));
+    }
+}
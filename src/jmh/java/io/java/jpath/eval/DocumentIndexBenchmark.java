@@ -0,0 +1,86 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Twenty paths against one response body: a full Jackson tree per body versus a {@link DocumentIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DocumentIndexBenchmark {
+
+    @Param({"100", "5000"})
+    public int events;
+
+    private byte[] document;
+    private Path[] paths;
+    private DocumentIndex wide;
+    private Path[] widePaths;
+
+    @Setup
+    public void setup() {
+        document = StreamingEvaluatorBenchmark.document(events).getBytes(StandardCharsets.UTF_8);
+        paths = new Path[20];
+        paths[0] = PathParser.parse("$.header.id");
+        paths[1] = PathParser.parse("$.header.source");
+        for (int i = 2; i < paths.length; i++) {
+            paths[i] = PathParser.parse("$.events[" + (i * 5 % events) + "]." + (i % 2 == 0 ? "id" : "payload.user"));
+        }
+        StringBuilder fields = new StringBuilder("{");
+        for (int i = 0; i < 300; i++) {
+            fields.append(i == 0 ? "" : ", ").append("\"attribute_").append(i).append("\": ").append(i);
+        }
+        wide = DocumentIndex.of(fields.append('}').toString().getBytes(StandardCharsets.UTF_8));
+        widePaths = new Path[20];
+        for (int i = 0; i < widePaths.length; i++) {
+            widePaths[i] = PathParser.parse("$.attribute_" + (i * 15 + 7));
+        }
+    }
+
+    @Benchmark
+    public void tree(Blackhole bh) {
+        JsonNode root = Json.readTree(document, 0, document.length);
+        for (Path path : paths) {
+            bh.consume(TreeEvaluator.evaluate(path, root));
+        }
+    }
+
+    /**
+     * Key lookups in an indexed object of 300 members, independent of {@code events}.
+     */
+    @Benchmark
+    public void wideObject(Blackhole bh) {
+        for (Path path : widePaths) {
+            bh.consume(wide.evaluate(path));
+        }
+    }
+
+    @Benchmark
+    public void index(Blackhole bh) {
+        DocumentIndex index = DocumentIndex.of(document);
+        for (Path path : paths) {
+            bh.consume(index.evaluate(path));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter evaluation over an already parsed tree of {@code events} events, so only predicate cost is measured.
+ * {@code generated} runs the path as a {@link CompiledPath}, {@code parallel} splits the events array over the
+ * common pool. {@code allowList} filters on a 2000 entry {@code in} literal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"10000", "200000"})
+    public int events;
+
+    @Param({
+            "$.events[?(@.id < 100)].id",
+            "$.events[?(@.type == 't3' && @.payload.values[0] > 0.5)].id",
+            "$.events[?(@.payload.user =~ /u1.*/i)].id"
+    })
+    public String path;
+
+    private JsonNode root;
+    private Path compiled;
+    private CompiledPath generated;
+    private Path allowList;
+
+    @Setup
+    public void setup() {
+        root = Json.readTree(StreamingEvaluatorBenchmark.document(events));
+        compiled = PathParser.parse(path);
+        generated = CompiledPath.compile(compiled);
+        StringBuilder users = new StringBuilder("$.events[?(@.payload.user in [");
+        for (int i = 0; i < 2000; i++) {
+            users.append(i == 0 ? "'u" : ", 'u").append(i * 50).append('\'');
+        }
+        allowList = PathParser.parse(users.append("])].id").toString());
+    }
+
+    @Benchmark
+    public void filter(Blackhole bh) {
+        TreeEvaluator.evaluate(compiled, root, bh::consume);
+    }
+
+    @Benchmark
+    public void generated(Blackhole bh) {
+        generated.evaluate(root, bh::consume);
+    }
+
+    @Benchmark
+    public void allowList(Blackhole bh) {
+        TreeEvaluator.evaluate(allowList, root, bh::consume);
+    }
+
+    @Benchmark
+    public void parallel(Blackhole bh) {
+        bh.consume(TreeEvaluator.evaluate(compiled, root, ForkJoinPool.commonPool(), 1000));
+    }
+}
@@ -0,0 +1,81 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing one event to 300 subscriber paths, of which a few match: every path on the tree versus the
+ * {@link KeyPrefilter} candidates only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class KeyPrefilterBenchmark {
+
+    private static final int EVENTS = 64;
+
+    private List<Path> paths;
+    private KeyPrefilter prefilter;
+    private byte[][] events;
+    private int next;
+
+    @Setup
+    public void setup() {
+        paths = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            paths.add(PathParser.parse("$.type" + i % 100 + ".payload.attr" + i % 7));
+        }
+        prefilter = KeyPrefilter.of(paths);
+        Random random = new Random(3);
+        events = new byte[EVENTS][];
+        for (int e = 0; e < EVENTS; e++) {
+            StringBuilder event = new StringBuilder("{\"id\": ").append(e).append(", \"type").append(random.nextInt(100))
+                    .append("\": {\"payload\": {");
+            for (int a = 0; a < 7; a++) {
+                event.append(a == 0 ? "" : ", ").append("\"attr").append(random.nextInt(7)).append("\": ").append(a);
+            }
+            events[e] = event.append("}}}").toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public void everyPath(Blackhole bh) {
+        byte[] event = nextEvent();
+        JsonNode root = Json.readTree(event, 0, event.length);
+        for (Path path : paths) {
+            TreeEvaluator.evaluate(path, root, bh::consume);
+        }
+    }
+
+    @Benchmark
+    public void prefiltered(Blackhole bh) {
+        prefilter.evaluate(nextEvent(), (path, value) -> bh.consume(value));
+    }
+
+    private byte[] nextEvent() {
+        byte[] event = events[next];
+        next = next + 1 == EVENTS ? 0 : next + 1;
+        return event;
+    }
+}
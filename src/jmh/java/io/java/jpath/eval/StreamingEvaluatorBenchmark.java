@@ -0,0 +1,76 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracting a few fields from a large event document, streaming versus reading the whole tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class StreamingEvaluatorBenchmark {
+
+    @Param({"5000", "50000"})
+    public int events;
+
+    @Param({"$.header.id", "$.events[10:12].payload.user", "$.events[*].id"})
+    public String path;
+
+    private byte[] document;
+    private Path compiled;
+
+    @Setup
+    public void setup() {
+        document = document(events).getBytes(StandardCharsets.UTF_8);
+        compiled = PathParser.parse(path);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole bh) {
+        bh.consume(StreamingEvaluator.evaluate(compiled, document));
+    }
+
+    @Benchmark
+    public void tree(Blackhole bh) throws Exception {
+        JsonNode root = Json.MAPPER.readTree(document);
+        bh.consume(TreeEvaluator.evaluate(compiled, root));
+    }
+
+    static String document(int events) {
+        Random random = new Random(5);
+        StringBuilder sb = new StringBuilder("{\"header\": {\"id\": \"h-1\", \"source\": \"bench\"}, \"events\": [");
+        for (int i = 0; i < events; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\": ").append(i)
+              .append(", \"type\": \"t").append(random.nextInt(20))
+              .append("\", \"payload\": {\"user\": \"u").append(random.nextInt(100000))
+              .append("\", \"values\": [").append(random.nextDouble()).append(", ").append(random.nextDouble())
+              .append("], \"text\": \"").append(Long.toHexString(random.nextLong())).append(Long.toHexString(random.nextLong()))
+              .append("\"}}");
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,53 @@
+package io.java.jpath.lexer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A keystroke at the end of a 2 KB filter path with a large JSON literal: full lexing versus an incremental edit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class IncrementalLexerBenchmark {
+
+    private String path;
+    private IncrementalLexer lexer;
+    private boolean typed;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("$.orders[?(@.sku == [");
+        for (int i = 0; sb.length() < 2000; i++) {
+            sb.append(i == 0 ? "" : ", ").append("\"sku-").append(i).append('"');
+        }
+        path = sb.append("])].lines[*].name").toString();
+        lexer = IncrementalLexer.of(path);
+    }
+
+    @Benchmark
+    public void full(Blackhole bh) {
+        PathLexer.lex(path, bh::consume);
+    }
+
+    @Benchmark
+    public void incremental(Blackhole bh) {
+        int end = lexer.text().length();
+        bh.consume(typed ? lexer.edit(end - 1, 1, "") : lexer.edit(end, 0, "s"));
+        typed = !typed;
+    }
+}
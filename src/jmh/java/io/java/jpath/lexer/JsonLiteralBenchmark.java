@@ -0,0 +1,49 @@
+package io.java.jpath.lexer;
+
+import io.java.jpath.PathCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexing of the JSON literals of the {@link PathCorpus#JSON_LITERAL json} corpus on their own, without the
+ * path around them. One op lexes one literal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JsonLiteralBenchmark {
+
+    private String[] literals;
+    private int next;
+
+    @Setup
+    public void setup() {
+        String[] paths = PathCorpus.of(PathCorpus.JSON_LITERAL);
+        literals = new String[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            String path = paths[i];
+            literals[i] = path.substring(path.indexOf("== ") + 3, path.lastIndexOf(")]"));
+        }
+    }
+
+    @Benchmark
+    public void acceptJson(Blackhole bh) {
+        String literal = literals[next];
+        next = next + 1 == literals.length ? 0 : next + 1;
+        Lexer.of(literal, bh::consume)
+             .acceptJson()
+             .emit(TokenType.JSON_LITERAL);
+    }
+}
@@ -0,0 +1,83 @@
+package io.java.jpath.lexer;
+
+import io.java.jpath.PathCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexer throughput over the {@link PathCorpus} corpora. One op lexes one path; run with {@code -prof gc}
+ * to get bytes allocated per op ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class PathLexerBenchmark {
+
+    @Param({PathCorpus.DOT, PathCorpus.BRACKET, PathCorpus.FILTER, PathCorpus.JSON_LITERAL, PathCorpus.LONG_IDENTIFIER})
+    public String corpus;
+
+    private String[] paths;
+    private ByteSource[] utf8;
+    private int next;
+    private TokenCursor cursor;
+
+    @Setup
+    public void setup(Blackhole bh) {
+        cursor = TokenCursor.of(c -> bh.consume(c.length()));
+        paths = PathCorpus.of(corpus);
+        utf8 = new ByteSource[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            utf8[i] = ByteSource.of(paths[i].getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void lex(Blackhole bh) {
+        PathLexer.lex(nextPath(), bh::consume);
+    }
+
+    @Benchmark
+    public void lexTokenSink(Blackhole bh) {
+        PathLexer.lex(nextPath(), (type, start, end) -> bh.consume(end - start));
+    }
+
+    @Benchmark
+    public void lexTokenCursor(Blackhole bh) {
+        PathLexer.lex(nextPath(), cursor);
+    }
+
+    @Benchmark
+    public void lexUtf8(Blackhole bh) {
+        PathLexer.lex(utf8[nextIndex()], cursor);
+    }
+
+    @Benchmark
+    public void decodeAndLex(Blackhole bh) {
+        ByteSource bytes = utf8[nextIndex()];
+        PathLexer.lex(bytes.toString(), cursor);
+    }
+
+    private String nextPath() {
+        return paths[nextIndex()];
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = i + 1 == paths.length ? 0 : i + 1;
+        return i;
+    }
+}
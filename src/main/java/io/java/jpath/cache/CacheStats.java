@@ -0,0 +1,53 @@
+package io.java.jpath.cache;
+
+public final class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long rejections;
+
+    CacheStats(long hits, long misses, long evictions, long rejections) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.rejections = rejections;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Entries removed to make room for a more frequently used path.
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Compiled paths that were returned but not cached because the admission filter ranked them below
+     * the entry they would have replaced.
+     */
+    public long rejections() {
+        return rejections;
+    }
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", rejections=" + rejections +
+                '}';
+    }
+}
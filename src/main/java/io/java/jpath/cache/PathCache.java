@@ -0,0 +1,193 @@
+package io.java.jpath.cache;
+
+import io.java.jpath.lexer.PathNormalizer;
+import io.java.jpath.lexer.TokenBuffer;
+import io.java.jpath.metrics.Instrumentations;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded, thread-safe memo of compiled paths keyed on the path text.
+ * <p>
+ * Entries are kept in LRU order. When the cache is full a new path is only admitted if a TinyLFU frequency
+ * sketch estimates it to be more popular than the LRU victim, so a burst of one-off paths cannot flush
+ * the hot set. Compilation happens outside the lock; failures propagate and are not cached.
+ */
+public final class PathCache<V> {
+
+    private final int maximumSize;
+    private final Function<String, String> keys;
+    private final Function<String, ? extends V> compiler;
+    private final LinkedHashMap<String, V> entries;
+    private final LinkedHashMap<String, String> aliases;
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+
+    /**
+     * @param keys maps a path to its key, null to key on the path as is
+     */
+    private PathCache(int maximumSize, Function<String, String> keys, Function<String, ? extends V> compiler) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be greater than 0");
+        }
+        this.maximumSize = maximumSize;
+        this.keys = keys;
+        this.compiler = requireNonNull(compiler);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.aliases = keys == null ? null : new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    public static <V> PathCache<V> of(int maximumSize, Function<String, ? extends V> compiler) {
+        return new PathCache<>(maximumSize, null, compiler);
+    }
+
+    /**
+     * A cache keyed on the {@link PathNormalizer canonical} spelling of each path, so that equivalent
+     * spellings share one entry. The compiler is given the canonical path. The canonical spellings of the
+     * {@code maximumSize} most recent paths are remembered, so a path seen before is not normalized again.
+     */
+    public static <V> PathCache<V> canonical(int maximumSize, Function<String, ? extends V> compiler) {
+        return new PathCache<>(maximumSize, PathNormalizer::normalize, compiler);
+    }
+
+    /**
+     * Caches the tokens of each path, see {@link PathParser#parse(TokenBuffer)}.
+     */
+    public static PathCache<TokenBuffer> tokens(int maximumSize) {
+        return of(maximumSize, TokenBuffer::of);
+    }
+
+    /**
+     * Caches the parsed form of each path, keyed on its canonical spelling which is also the
+     * {@link Path#source()} of the cached path.
+     */
+    public static PathCache<Path> paths(int maximumSize) {
+        return canonical(maximumSize, PathParser::parse);
+    }
+
+    public V get(String path) {
+        requireNonNull(path);
+        String key;
+        V value = null;
+        lock.lock();
+        try {
+            key = aliases == null ? path : aliases.get(path);
+            if (key != null) {
+                value = lookup(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (key == null) {
+            key = keys.apply(path);
+            lock.lock();
+            try {
+                aliases.put(path, key);
+                value = lookup(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (Instrumentations.ENABLED) {
+            Instrumentations.INSTALLED.cacheAccessed(value != null);
+        }
+        if (value != null) {
+            return value;
+        }
+
+        V compiled = requireNonNull(compiler.apply(key), "compiled path must not be null");
+
+        lock.lock();
+        try {
+            V raced = entries.get(key);
+            if (raced != null) {
+                return raced;
+            }
+            if (entries.size() < maximumSize) {
+                entries.put(key, compiled);
+            } else if (admit(key)) {
+                entries.put(key, compiled);
+            } else {
+                rejections++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return compiled;
+    }
+
+    /**
+     * Looks the key up and records the access, with the lock held.
+     */
+    private V lookup(String key) {
+        sketch.increment(key);
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, rejections);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean admit(String candidate) {
+        Iterator<Map.Entry<String, V>> lru = entries.entrySet().iterator();
+        String victim = lru.next().getKey();
+        if (sketch.frequency(candidate) <= sketch.frequency(victim)) {
+            return false;
+        }
+        lru.remove();
+        evictions++;
+        return true;
+    }
+}
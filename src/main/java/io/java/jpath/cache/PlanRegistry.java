@@ -0,0 +1,187 @@
+package io.java.jpath.cache;
+
+import io.java.jpath.lexer.PathNormalizer;
+import io.java.jpath.metrics.Instrumentations;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A lock-free registry of compiled plans, for paths that many threads request at the same time.
+ * <p>
+ * Each path is compiled at most once however many threads ask for it concurrently: the first caller
+ * compiles, the others wait for its result. A failed compilation is handed to every waiting caller and
+ * then forgotten, so the next call compiles again. Registering a path past {@code maximumSize} evicts an
+ * arbitrary other plan, with no regard to how recently or often it was used, so new paths are always kept
+ * and a hot plan that was evicted is registered again the next time it is asked for. The compiler must return
+ * plans that are safe to share between threads, such as a {@link Path} or an
+ * {@code io.java.jpath.eval.CompiledPath}.
+ */
+public final class PlanRegistry<V> {
+
+    private final int maximumSize;
+    private final Function<String, String> keys;
+    private final Function<String, ? extends V> compiler;
+    private final ConcurrentHashMap<String, FutureTask<V>> plans = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> aliases;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param keys maps a path to its key, null to key on the path as is
+     */
+    private PlanRegistry(int maximumSize, Function<String, String> keys, Function<String, ? extends V> compiler) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be greater than 0");
+        }
+        this.maximumSize = maximumSize;
+        this.keys = keys;
+        this.compiler = requireNonNull(compiler);
+        this.aliases = keys == null ? null : new ConcurrentHashMap<>();
+    }
+
+    public static <V> PlanRegistry<V> of(int maximumSize, Function<String, ? extends V> compiler) {
+        return new PlanRegistry<>(maximumSize, null, compiler);
+    }
+
+    /**
+     * A registry keyed on the {@link PathNormalizer canonical} spelling of each path, see
+     * {@link PathCache#canonical(int, Function)}. The canonical spellings of up to {@code maximumSize} paths
+     * are remembered, so a path seen before is not normalized again; past that they are all forgotten and
+     * learnt again.
+     */
+    public static <V> PlanRegistry<V> canonical(int maximumSize, Function<String, ? extends V> compiler) {
+        return new PlanRegistry<>(maximumSize, PathNormalizer::normalize, compiler);
+    }
+
+    public static PlanRegistry<Path> paths(int maximumSize) {
+        return canonical(maximumSize, PathParser::parse);
+    }
+
+    public V get(String path) {
+        requireNonNull(path);
+        String key = aliases == null ? path : aliases.get(path);
+        if (key == null) {
+            key = canonical(path);
+        }
+        FutureTask<V> plan = plans.get(key);
+        if (plan == null) {
+            return compile(key);
+        }
+        accessed(true);
+        return await(key, plan);
+    }
+
+    private String canonical(String path) {
+        String key = keys.apply(path);
+        if (aliases.size() >= maximumSize) {
+            aliases.clear();
+        }
+        aliases.put(path, key);
+        return key;
+    }
+
+    /**
+     * Registers and runs the compilation of the key, or waits for the one a racing thread registered first.
+     */
+    private V compile(String key) {
+        FutureTask<V> task = new FutureTask<>(() -> requireNonNull(compiler.apply(key), "compiled path must not be null"));
+        FutureTask<V> raced = plans.putIfAbsent(key, task);
+        if (raced != null) {
+            accessed(true);
+            return await(key, raced);
+        }
+        accessed(false);
+        evict(key);
+        task.run();
+        return await(key, task);
+    }
+
+    /**
+     * Removes plans other than the key's until the registry is back to its maximum size.
+     */
+    private void evict(String key) {
+        for (Iterator<String> victims = plans.keySet().iterator(); plans.size() > maximumSize && victims.hasNext(); ) {
+            String victim = victims.next();
+            if (!victim.equals(key) && plans.remove(victim) != null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void accessed(boolean hit) {
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        if (Instrumentations.ENABLED) {
+            Instrumentations.INSTALLED.cacheAccessed(hit);
+        }
+    }
+
+    private V await(String key, FutureTask<V> plan) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return plan.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    plans.remove(key, plan);
+                    throw rethrow(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Forgets the plan of the path; a compilation in progress still completes for the threads waiting on it.
+     */
+    public void invalidate(String path) {
+        plans.remove(keys == null ? requireNonNull(path) : keys.apply(path));
+    }
+
+    public void invalidateAll() {
+        plans.clear();
+    }
+
+    /**
+     * Hits include callers that waited for a compilation started by another thread. No path is rejected.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), 0);
+    }
+}
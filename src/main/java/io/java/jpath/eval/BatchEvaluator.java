@@ -0,0 +1,156 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates a path over a batch of documents with the {@link StreamingEvaluator}.
+ * <p>
+ * The batch is shared by up to {@code parallelism} workers, the calling thread and tasks on the executor,
+ * that claim documents one at a time from a counter. Each worker reuses one evaluator, with its frames and
+ * buffers, for all the documents it claims. Workers take no locks, so an executor of virtual threads runs
+ * them without pinning their carrier threads. The calling thread claims whatever is left and then waits only
+ * for the documents other workers have claimed, so tasks the executor rejects, queues or never starts leave
+ * their documents to the caller, and the executor may be the one the caller runs on.
+ */
+public final class BatchEvaluator {
+
+    private static final Executor CALLER = Runnable::run;
+
+    private final PathSet paths;
+    private final Executor executor;
+    private final int parallelism;
+
+    private BatchEvaluator(Path path, Executor executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+        }
+        this.paths = PathSet.of(requireNonNull(path));
+        this.executor = requireNonNull(executor);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Evaluates every document on the calling thread.
+     */
+    public static BatchEvaluator of(Path path) {
+        return new BatchEvaluator(path, CALLER, 1);
+    }
+
+    public static BatchEvaluator of(Path path, Executor executor, int parallelism) {
+        return new BatchEvaluator(path, executor, parallelism);
+    }
+
+    public Path path() {
+        return paths.path(0);
+    }
+
+    /**
+     * @return the matches of each document, in the order of the documents
+     */
+    public List<List<JsonNode>> evaluateAll(Iterable<byte[]> documents) {
+        List<byte[]> batch = batch(requireNonNull(documents));
+        @SuppressWarnings("unchecked")
+        List<JsonNode>[] results = (List<JsonNode>[]) new List<?>[batch.size()];
+        int workers = Math.min(parallelism, batch.size());
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(batch.size());
+        Runnable worker = () -> work(batch, results, next, done, failure);
+        for (int i = 1; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                // the caller evaluates the documents this worker would have claimed
+            }
+        }
+        worker.run();
+        await(done, failure);
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                // a worker on the executor failed with an Error
+                throw new EvaluationException("Failed to evaluate document: " + i);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<List<JsonNode>> evaluateAll(Stream<byte[]> documents) {
+        Iterator<byte[]> iterator = documents.iterator();
+        return evaluateAll(() -> iterator);
+    }
+
+    /**
+     * Claims documents until none are left and counts each one down, evaluated or not. After a failure the
+     * remaining documents are claimed without being evaluated.
+     */
+    private void work(List<byte[]> batch, List<JsonNode>[] results, AtomicInteger next, CountDownLatch done,
+                      AtomicReference<RuntimeException> failure) {
+        StreamingEvaluator evaluator = null;
+        for (int i = next.getAndIncrement(); i < batch.size(); i = next.getAndIncrement()) {
+            try {
+                if (failure.get() == null) {
+                    evaluator = evaluate(evaluator, batch.get(i), results, i);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, new EvaluationException("Failed to evaluate document: " + i, e));
+                // the evaluator may have stopped half way through a document
+                evaluator = null;
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    private StreamingEvaluator evaluate(StreamingEvaluator evaluator, byte[] document, List<JsonNode>[] results, int i)
+            throws IOException {
+        try (JsonParser parser = Json.FACTORY.createParser(requireNonNull(document, "document must not be null"))) {
+            evaluator = evaluator == null ? StreamingEvaluator.of(paths, parser) : evaluator.reset(parser);
+            List<JsonNode> matches = new ArrayList<>();
+            for (JsonNode match = evaluator.next(); match != null; match = evaluator.next()) {
+                matches.add(match);
+            }
+            results[i] = matches;
+            return evaluator;
+        }
+    }
+
+    private static void await(CountDownLatch done, AtomicReference<RuntimeException> failure) {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, new EvaluationException("Interrupted while evaluating batch", e));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<byte[]> batch(Iterable<byte[]> documents) {
+        if (documents instanceof List && documents instanceof RandomAccess) {
+            return (List<byte[]>) documents;
+        }
+        List<byte[]> batch = new ArrayList<>();
+        for (byte[] document : documents) {
+            batch.add(document);
+        }
+        return batch;
+    }
+}
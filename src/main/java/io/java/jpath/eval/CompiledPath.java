@@ -0,0 +1,91 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.metrics.Instrumentations;
+import io.java.jpath.parser.FilterSelector;
+import io.java.jpath.parser.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A path compiled to a generated class, see {@link #compile(Path)}. Evaluates like {@link TreeEvaluator}.
+ * <p>
+ * Subclasses are generated at runtime and only call the protected helpers; they are not meant to be written
+ * by hand. The generated code does not count the nodes it visits, so evaluations are reported to the installed
+ * instrumentation with their matches and time and with no visited or skipped nodes.
+ */
+public abstract class CompiledPath {
+
+    private final Path path;
+    private final FilterPredicate[] predicates;
+
+    protected CompiledPath(Path path) {
+        this.path = requireNonNull(path);
+        this.predicates = new FilterPredicate[path.size()];
+        for (int i = 0; i < path.size(); i++) {
+            if (path.selector(i) instanceof FilterSelector) {
+                predicates[i] = FilterCompiler.predicate((FilterSelector) path.selector(i));
+            }
+        }
+    }
+
+    /**
+     * Generates a class that evaluates the path with straight-line code. Property names and indexes become
+     * constants of the class; wildcards and filters become loops. Slices, deep scans and functions continue
+     * on the {@link TreeEvaluator}.
+     */
+    public static CompiledPath compile(Path path) {
+        return PathCompiler.compile(path);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public final List<JsonNode> evaluate(JsonNode document) {
+        List<JsonNode> matches = new ArrayList<>();
+        evaluate(document, matches::add);
+        return matches;
+    }
+
+    public final void evaluate(JsonNode document, Consumer<? super JsonNode> sink) {
+        requireNonNull(document);
+        requireNonNull(sink);
+        if (!Instrumentations.ENABLED) {
+            run(document, document, sink);
+            return;
+        }
+        long start = System.nanoTime();
+        long[] matches = new long[1];
+        run(document, document, match -> {
+            matches[0]++;
+            sink.accept(match);
+        });
+        Instrumentations.INSTALLED.evaluated(path.source(), 0, 0, matches[0], System.nanoTime() - start);
+    }
+
+    protected abstract void run(JsonNode node, JsonNode root, Consumer<? super JsonNode> sink);
+
+    /**
+     * Evaluates the selectors from {@code from} on with the {@link TreeEvaluator}.
+     */
+    protected final void tail(int from, JsonNode node, JsonNode root, Consumer<? super JsonNode> sink) {
+        TreeEvaluator.evaluate(path, from, node, root, sink);
+    }
+
+    /**
+     * Tests the filter at {@code position}.
+     */
+    protected final boolean test(int position, JsonNode node, JsonNode root) {
+        return predicates[position].test(node, root);
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
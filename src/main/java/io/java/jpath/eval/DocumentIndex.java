@@ -0,0 +1,414 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.java.jpath.lexer.ByteSource;
+import io.java.jpath.metrics.Instrumentations;
+import io.java.jpath.parser.IndexSelector;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PropertySelector;
+import io.java.jpath.parser.Selector;
+import io.java.jpath.parser.SliceSelector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A structural index over raw JSON bytes for answering many paths against the same document.
+ * <p>
+ * One pass over the bytes records every value on a tape: its kind, byte range, the tape position after its
+ * subtree and, for containers, the number of children. Object members are a key entry followed by the value;
+ * keys also record the {@link PropertySelector#hash(byte[], int, int) hash} of their bytes, so a property is
+ * compared only with keys of the same hash.
+ * Properties, indexes, wildcards and slices are answered by hopping over subtrees without parsing them, and
+ * only the values a path returns are materialized as {@link JsonNode}s. Filters, deep scans and functions
+ * materialize the node they apply to and continue on the {@link TreeEvaluator}.
+ * <p>
+ * The scan checks structure, not full JSON validity; the bytes must not change while the index is in use.
+ * Like Jackson, a duplicated key selects its last value.
+ */
+public final class DocumentIndex {
+
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+    private static final byte STRING = 3;
+    private static final byte NUMBER = 4;
+    private static final byte TRUE = 5;
+    private static final byte FALSE = 6;
+    private static final byte NULL = 7;
+    private static final byte KEY = 8;
+    private static final byte ESCAPED = 0x10;
+
+    private final byte[] json;
+    private final int offset;
+    private final int limit;
+    private final ByteSource source;
+
+    private byte[] kinds;
+    private int[] starts;
+    private int[] ends;
+    private int[] nexts;
+    private int[] sizes;
+    private int[] hashes;
+    private int count;
+
+    private volatile JsonNode root;
+
+    private DocumentIndex(byte[] json, int offset, int length) {
+        this.json = json;
+        this.offset = offset;
+        this.limit = offset + length;
+        this.source = ByteSource.of(json);
+        int capacity = Math.max(16, length / 8);
+        this.kinds = new byte[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.nexts = new int[capacity];
+        this.sizes = new int[capacity];
+        this.hashes = new int[capacity];
+        scan();
+    }
+
+    public static DocumentIndex of(byte[] json) {
+        return new DocumentIndex(requireNonNull(json), 0, json.length);
+    }
+
+    public static DocumentIndex of(byte[] json, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > json.length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + json.length);
+        }
+        return new DocumentIndex(json, offset, length);
+    }
+
+    /**
+     * The number of values and keys on the tape.
+     */
+    public int size() {
+        return count;
+    }
+
+    public List<JsonNode> evaluate(Path path) {
+        List<JsonNode> matches = new ArrayList<>();
+        evaluate(path, matches::add);
+        return matches;
+    }
+
+    public void evaluate(Path path, Consumer<? super JsonNode> sink) {
+        requireNonNull(path);
+        requireNonNull(sink);
+        if (Instrumentations.ENABLED) {
+            instrumented(path, sink);
+            return;
+        }
+        select(path, 0, 0, Paths.referencesRoot(path), sink, null);
+    }
+
+    /**
+     * Reports the values selected on the tape and the nodes visited by the {@link TreeEvaluator} as visited.
+     */
+    private void instrumented(Path path, Consumer<? super JsonNode> sink) {
+        long start = System.nanoTime();
+        Parallelism counts = Parallelism.sequential();
+        long[] matches = new long[1];
+        select(path, 0, 0, Paths.referencesRoot(path), match -> {
+            matches[0]++;
+            sink.accept(match);
+        }, counts);
+        Instrumentations.INSTALLED.evaluated(path.source(), counts.visited.sum(), counts.skipped.sum(), matches[0],
+                System.nanoTime() - start);
+    }
+
+    /**
+     * @param counts counts the visited nodes when instrumented, else null
+     */
+    private void select(Path path, int from, int value, boolean needsRoot, Consumer<? super JsonNode> sink,
+                        Parallelism counts) {
+        if (Instrumentations.ENABLED && counts != null) {
+            counts.visited.increment();
+        }
+        if (from == path.size()) {
+            sink.accept(materialize(value));
+            return;
+        }
+        Selector selector = path.selector(from);
+        int next = from + 1;
+        byte kind = kinds[value];
+        switch (selector.type()) {
+            case PROPERTY:
+                if (kind == OBJECT) {
+                    PropertySelector property = (PropertySelector) selector;
+                    for (int i = 0; i < property.count(); i++) {
+                        int member = member(value, property, i);
+                        if (member != -1) {
+                            select(path, next, member, needsRoot, sink, counts);
+                        }
+                    }
+                }
+                break;
+            case INDEX:
+                if (kind == ARRAY) {
+                    IndexSelector index = (IndexSelector) selector;
+                    for (int i = 0; i < index.count(); i++) {
+                        int resolved = index.resolve(i, sizes[value]);
+                        if (resolved >= 0 && resolved < sizes[value]) {
+                            select(path, next, element(value, resolved), needsRoot, sink, counts);
+                        }
+                    }
+                }
+                break;
+            case SLICE:
+                if (kind == ARRAY) {
+                    SliceSelector slice = (SliceSelector) selector;
+                    int[] elements = elements(value);
+                    int to = slice.to(elements.length);
+                    int step = slice.step();
+                    for (int i = slice.from(elements.length); step > 0 ? i < to : i > to; i += step) {
+                        select(path, next, elements[i], needsRoot, sink, counts);
+                    }
+                }
+                break;
+            case WILDCARD:
+                if (kind == OBJECT) {
+                    for (int child = value + 1; child < nexts[value]; child = nexts[child + 1]) {
+                        select(path, next, child + 1, needsRoot, sink, counts);
+                    }
+                } else if (kind == ARRAY) {
+                    for (int child = value + 1; child < nexts[value]; child = nexts[child]) {
+                        select(path, next, child, needsRoot, sink, counts);
+                    }
+                }
+                break;
+            default:
+                TreeEvaluator.evaluate(path, from, materialize(value), needsRoot ? root() : null, sink, counts);
+                break;
+        }
+    }
+
+    /**
+     * The tape position of the last value with the name of the property, or -1.
+     */
+    private int member(int object, PropertySelector property, int name) {
+        int found = -1;
+        for (int key = object + 1; key < nexts[object]; key = nexts[key + 1]) {
+            boolean equal = (kinds[key] & ESCAPED) == 0
+                    ? property.matches(name, hashes[key], json, starts[key] + 1, ends[key] - 1)
+                    : property.name(name).equals(Json.readTree(json, starts[key], ends[key] - starts[key]).textValue());
+            if (equal) {
+                found = key + 1;
+            }
+        }
+        return found;
+    }
+
+    private int element(int array, int index) {
+        int element = array + 1;
+        for (int i = 0; i < index; i++) {
+            element = nexts[element];
+        }
+        return element;
+    }
+
+    private int[] elements(int array) {
+        int[] elements = new int[sizes[array]];
+        for (int i = 0, element = array + 1; i < elements.length; i++, element = nexts[element]) {
+            elements[i] = element;
+        }
+        return elements;
+    }
+
+    private JsonNode root() {
+        JsonNode result = root;
+        if (result == null) {
+            root = result = materialize(0);
+        }
+        return result;
+    }
+
+    private JsonNode materialize(int value) {
+        switch (kinds[value]) {
+            case TRUE:
+                return BooleanNode.TRUE;
+            case FALSE:
+                return BooleanNode.FALSE;
+            case NULL:
+                return NullNode.getInstance();
+            case STRING:
+                return TextNode.valueOf(new String(json, starts[value] + 1, ends[value] - starts[value] - 2, StandardCharsets.UTF_8));
+            default:
+                return Json.readTree(json, starts[value], ends[value] - starts[value]);
+        }
+    }
+
+    //-----------------------------------------------------
+    //
+    // Structural scan
+    //
+    //-----------------------------------------------------
+    private void scan() {
+        int[] open = new int[16];
+        int depth = 0;
+        int pos = whitespace(offset);
+        value:
+        while (true) {
+            if (pos >= limit) {
+                throw fail(pos);
+            }
+            byte b = json[pos];
+            int value = count;
+            if (b == '{' || b == '[') {
+                add(b == '{' ? OBJECT : ARRAY, pos, -1);
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                }
+                open[depth++] = value;
+                pos = whitespace(pos + 1);
+                if (pos < limit && json[pos] == (b == '{' ? '}' : ']')) {
+                    depth--;
+                    close(value, ++pos);
+                } else {
+                    if (b == '{') {
+                        pos = key(pos);
+                    }
+                    continue;
+                }
+            } else if (b == '"' || b == '\'') {
+                pos = string(STRING, pos);
+            } else if (b == 't') {
+                pos = literal(TRUE, pos, "true");
+            } else if (b == 'f') {
+                pos = literal(FALSE, pos, "false");
+            } else if (b == 'n') {
+                pos = literal(NULL, pos, "null");
+            } else {
+                pos = number(pos);
+            }
+            // a value is complete, continue in the enclosing container
+            while (true) {
+                pos = whitespace(pos);
+                if (depth == 0) {
+                    if (pos != limit) {
+                        throw fail(pos);
+                    }
+                    return;
+                }
+                int container = open[depth - 1];
+                sizes[container]++;
+                if (pos < limit && json[pos] == ',') {
+                    pos = whitespace(pos + 1);
+                    if (kinds[container] == OBJECT) {
+                        pos = key(pos);
+                    }
+                    continue value;
+                }
+                if (pos < limit && json[pos] == (kinds[container] == OBJECT ? '}' : ']')) {
+                    depth--;
+                    close(container, ++pos);
+                    continue;
+                }
+                throw fail(pos);
+            }
+        }
+    }
+
+    /**
+     * Scans a member key and the colon, returns the position of the value.
+     */
+    private int key(int pos) {
+        if (pos >= limit || (json[pos] != '"' && json[pos] != '\'')) {
+            throw fail(pos);
+        }
+        pos = whitespace(string(KEY, pos));
+        if (pos >= limit || json[pos] != ':') {
+            throw fail(pos);
+        }
+        return whitespace(pos + 1);
+    }
+
+    /**
+     * Strings with escapes or single quotes are flagged, they are decoded by Jackson.
+     */
+    private int string(byte kind, int pos) {
+        byte quote = json[pos];
+        boolean escaped = quote != '"';
+        for (int i = pos + 1; i < limit; i++) {
+            byte b = json[i];
+            if (b == '\\') {
+                escaped = true;
+                i++;
+            } else if (b == quote) {
+                add(escaped ? (byte) (kind | ESCAPED) : kind, pos, i + 1);
+                if (kind == KEY && !escaped) {
+                    hashes[count - 1] = PropertySelector.hash(json, pos + 1, i);
+                }
+                return i + 1;
+            }
+        }
+        throw fail(pos);
+    }
+
+    private int literal(byte kind, int pos, String literal) {
+        int end = pos + literal.length();
+        if (end > limit || !source.regionEquals(pos, end, literal)) {
+            throw fail(pos);
+        }
+        add(kind, pos, end);
+        return end;
+    }
+
+    private int number(int pos) {
+        int end = pos;
+        while (end < limit) {
+            byte b = json[end];
+            if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                end++;
+            } else {
+                break;
+            }
+        }
+        if (end == pos) {
+            throw fail(pos);
+        }
+        add(NUMBER, pos, end);
+        return end;
+    }
+
+    private int whitespace(int pos) {
+        while (pos < limit && (json[pos] == ' ' || json[pos] == '\n' || json[pos] == '\r' || json[pos] == '\t')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private void add(byte kind, int start, int end) {
+        if (count == kinds.length) {
+            int capacity = count * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            nexts = Arrays.copyOf(nexts, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        kinds[count] = kind;
+        starts[count] = start;
+        ends[count] = end;
+        nexts[count] = count + 1;
+        count++;
+    }
+
+    private void close(int container, int end) {
+        ends[container] = end;
+        nexts[container] = count;
+    }
+
+    private EvaluationException fail(int pos) {
+        return new EvaluationException("Invalid JSON at offset: " + pos);
+    }
+}
@@ -0,0 +1,13 @@
+package io.java.jpath.eval;
+
+public class EvaluationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public EvaluationException(String message) {
+        super(message);
+    }
+
+    public EvaluationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
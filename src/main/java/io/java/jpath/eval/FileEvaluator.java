@@ -0,0 +1,201 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates paths against files through {@link FileChannel#map}, so documents are read from the page cache
+ * and never loaded on-heap as a whole. Files larger than a mapping can address are mapped in regions of 1 GB.
+ * <p>
+ * A JSON file is streamed through the {@link StreamingEvaluator}. A JSON Lines file is cut into ranges that
+ * end on line boundaries, which are evaluated in parallel; each task copies one line at a time into its own
+ * buffer and evaluates it on its own.
+ */
+public final class FileEvaluator {
+
+    static final int REGION_SIZE = 1 << 30;
+
+    private FileEvaluator() {
+    }
+
+    public static List<JsonNode> evaluate(Path path, java.nio.file.Path file) {
+        List<JsonNode> matches = new ArrayList<>();
+        evaluate(PathSet.of(path), file, (p, value) -> matches.add(value));
+        return matches;
+    }
+
+    /**
+     * Evaluates the paths against the file as one JSON document, matches are passed on in document order.
+     */
+    public static void evaluate(PathSet paths, java.nio.file.Path file, MatchSink sink) {
+        evaluate(paths, file, sink, REGION_SIZE);
+    }
+
+    static void evaluate(PathSet paths, java.nio.file.Path file, MatchSink sink, int regionSize) {
+        requireNonNull(paths);
+        requireNonNull(sink);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             JsonParser parser = Json.FACTORY.createParser(new MappedInputStream(channel, regionSize))) {
+            paths.evaluate(parser, sink);
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * Evaluates the paths against every line of a JSON Lines file in the pool. Blank lines are skipped. The sink
+     * is called concurrently, in document order within a range but in no particular order across ranges.
+     */
+    public static void evaluateLines(PathSet paths, java.nio.file.Path file, ForkJoinPool pool, LineMatchSink sink) {
+        evaluateLines(paths, file, pool, sink, REGION_SIZE);
+    }
+
+    static void evaluateLines(PathSet paths, java.nio.file.Path file, ForkJoinPool pool, LineMatchSink sink, int regionSize) {
+        requireNonNull(paths);
+        requireNonNull(pool);
+        requireNonNull(sink);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long rangeSize = Math.max(1, Math.min(regionSize / 2, Math.max(1 << 20, size / (4L * pool.getParallelism()))));
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (long start = 0; start < size; ) {
+                long end = start + rangeSize >= size ? size : lineEnd(channel, start + rangeSize);
+                if (end - start > regionSize) {
+                    throw new EvaluationException("Line at offset: " + start + " is longer than " + regionSize + " bytes");
+                }
+                MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                long offset = start;
+                tasks.add(pool.submit(() -> lines(paths, range, offset, sink)));
+                start = end;
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * @return the position after the next newline at or after {@code from}, or the end of the file
+     */
+    private static long lineEnd(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        for (long pos = from; ; ) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+    }
+
+    private static void lines(PathSet paths, ByteBuffer range, long offset, LineMatchSink sink) {
+        byte[] line = new byte[1024];
+        int limit = range.limit();
+        for (int start = 0; start < limit; ) {
+            int end = start;
+            while (end < limit && range.get(end) != '\n') {
+                end++;
+            }
+            int length = end - start;
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            range.position(start);
+            range.get(line, 0, length);
+            if (!blank(line, length)) {
+                long lineOffset = offset + start;
+                try (JsonParser parser = Json.FACTORY.createParser(line, 0, length)) {
+                    paths.evaluate(parser, (path, value) -> sink.match(lineOffset, path, value));
+                } catch (IOException e) {
+                    throw new EvaluationException("Failed to read line at offset: " + lineOffset, e);
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    private static boolean blank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t' && line[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a file through read-only mappings of at most {@code regionSize} bytes, mapped one after the other.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final int regionSize;
+        private final long size;
+        private long mapped;
+        private ByteBuffer region = ByteBuffer.allocate(0);
+
+        private MappedInputStream(FileChannel channel, int regionSize) throws IOException {
+            this.channel = channel;
+            this.regionSize = regionSize;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return next() ? region.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!next()) {
+                return -1;
+            }
+            int n = Math.min(len, region.remaining());
+            region.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return region.remaining();
+        }
+
+        private boolean next() throws IOException {
+            if (region.hasRemaining()) {
+                return true;
+            }
+            if (mapped == size) {
+                return false;
+            }
+            int length = (int) Math.min(regionSize, size - mapped);
+            region = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+            mapped += length;
+            return true;
+        }
+    }
+}
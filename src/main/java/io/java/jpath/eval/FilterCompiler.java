@@ -0,0 +1,413 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.java.jpath.lexer.JsonValue;
+import io.java.jpath.parser.ComparisonExpression;
+import io.java.jpath.parser.Expression;
+import io.java.jpath.parser.FilterSelector;
+import io.java.jpath.parser.IndexSelector;
+import io.java.jpath.parser.Literal;
+import io.java.jpath.parser.LogicalExpression;
+import io.java.jpath.parser.NotExpression;
+import io.java.jpath.parser.Operand;
+import io.java.jpath.parser.OperandExpression;
+import io.java.jpath.parser.Operator;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PropertySelector;
+import io.java.jpath.parser.Selector;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles filter expressions into predicates specialized on operator and operand type. Literals are resolved
+ * once: number comparisons run on primitive doubles, JSON literals are parsed and regexes compiled up front
+ * (see {@link Regexes}),
+ * {@code in} and {@code nin} look values up in the {@link JsonValue} the lexer built from the array literal,
+ * and relative paths of plain property names and indexes such as {@code @.a[0].b} read children directly.
+ * A path operand that selects nothing compares equal only to another missing operand and is never ordered.
+ */
+final class FilterCompiler {
+
+    private static final FilterPredicate ALWAYS = (current, root) -> true;
+    private static final FilterPredicate NEVER = (current, root) -> false;
+
+    private FilterCompiler() {
+    }
+
+    /**
+     * The predicate of the selector, compiled on first use.
+     */
+    static FilterPredicate predicate(FilterSelector filter) {
+        return filter.compiled(FilterCompiler::compile);
+    }
+
+    static FilterPredicate compile(Expression expression) {
+        switch (expression.type()) {
+            case OR: {
+                LogicalExpression or = (LogicalExpression) expression;
+                FilterPredicate left = compile(or.left());
+                FilterPredicate right = compile(or.right());
+                return (current, root) -> left.test(current, root) || right.test(current, root);
+            }
+            case AND: {
+                LogicalExpression and = (LogicalExpression) expression;
+                FilterPredicate left = compile(and.left());
+                FilterPredicate right = compile(and.right());
+                return (current, root) -> left.test(current, root) && right.test(current, root);
+            }
+            case NOT: {
+                FilterPredicate operand = compile(((NotExpression) expression).operand());
+                return (current, root) -> !operand.test(current, root);
+            }
+            case COMPARISON:
+                return comparison((ComparisonExpression) expression);
+            default:
+                return exists(((OperandExpression) expression).operand());
+        }
+    }
+
+    private static FilterPredicate exists(Operand operand) {
+        if (operand.isLiteral()) {
+            Literal literal = operand.asLiteral();
+            switch (literal.type()) {
+                case BOOLEAN:
+                    return literal.booleanValue() ? ALWAYS : NEVER;
+                case NULL:
+                    return NEVER;
+                default:
+                    return ALWAYS;
+            }
+        }
+        Accessor accessor = accessor(operand);
+        if (operand.asPath().isDefinite()) {
+            return (current, root) -> accessor.value(current, root) != null;
+        }
+        return (current, root) -> accessor.value(current, root).size() != 0;
+    }
+
+    private static FilterPredicate comparison(ComparisonExpression comparison) {
+        Operand left = comparison.left();
+        Operand right = comparison.right();
+        Operator operator = comparison.operator();
+        if (operator == Operator.MATCHES) {
+            return matches(accessor(left), Regexes.pattern(right.asLiteral()));
+        }
+        if (operator == Operator.IN || operator == Operator.NIN) {
+            return membership(accessor(left), right, operator == Operator.IN);
+        }
+        if (left.isLiteral() && right.isPath()) {
+            Operand swap = left;
+            left = right;
+            right = swap;
+            operator = flip(operator);
+        }
+        if (left.isPath() && right.isLiteral()) {
+            Literal literal = right.asLiteral();
+            switch (literal.type()) {
+                case NUMBER:
+                    return number(accessor(left), operator, literal.numberValue());
+                case STRING:
+                    return string(accessor(left), operator, literal.stringValue());
+                default:
+                    break;
+            }
+        }
+        Accessor leftValue = accessor(left);
+        Accessor rightValue = accessor(right);
+        Operator op = operator;
+        return (current, root) -> compare(leftValue.value(current, root), op, rightValue.value(current, root));
+    }
+
+    private static FilterPredicate matches(Accessor accessor, Pattern pattern) {
+        return (current, root) -> {
+            JsonNode value = accessor.value(current, root);
+            return value != null && value.isTextual() && Regexes.matches(pattern, value.textValue());
+        };
+    }
+
+    /**
+     * A missing left value is in no array.
+     */
+    private static FilterPredicate membership(Accessor accessor, Operand right, boolean in) {
+        if (right.isLiteral()) {
+            JsonValue array = right.asLiteral().jsonValue();
+            return (current, root) -> {
+                JsonNode value = accessor.value(current, root);
+                return (value != null && contains(array, value)) == in;
+            };
+        }
+        Accessor array = accessor(right);
+        return (current, root) -> {
+            JsonNode value = accessor.value(current, root);
+            return (value != null && contains(array.value(current, root), value)) == in;
+        };
+    }
+
+    private static boolean contains(JsonValue array, JsonNode value) {
+        if (value.isTextual()) {
+            return array.containsString(value.textValue());
+        }
+        if (value.isNumber()) {
+            return array.containsNumber(value.doubleValue());
+        }
+        JsonValue converted = value(value);
+        return converted != null && array.contains(converted);
+    }
+
+    private static boolean contains(JsonNode array, JsonNode value) {
+        if (array == null || !array.isArray()) {
+            return false;
+        }
+        for (Iterator<JsonNode> elements = array.elements(); elements.hasNext(); ) {
+            if (equal(elements.next(), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The node as a {@link JsonValue}, null for nodes that are not JSON values such as binary nodes.
+     */
+    private static JsonValue value(JsonNode node) {
+        switch (node.getNodeType()) {
+            case NULL:
+                return JsonValue.NULL;
+            case BOOLEAN:
+                return JsonValue.bool(node.booleanValue());
+            case NUMBER:
+                return JsonValue.number(node.doubleValue());
+            case STRING:
+                return JsonValue.string(node.textValue());
+            case ARRAY:
+                List<JsonValue> elements = new ArrayList<>(node.size());
+                for (JsonNode element : node) {
+                    JsonValue value = value(element);
+                    if (value == null) {
+                        return null;
+                    }
+                    elements.add(value);
+                }
+                return JsonValue.array(elements);
+            case OBJECT:
+                Map<String, JsonValue> members = new LinkedHashMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    JsonValue value = value(field.getValue());
+                    if (value == null) {
+                        return null;
+                    }
+                    members.put(field.getKey(), value);
+                }
+                return JsonValue.object(members);
+            default:
+                return null;
+        }
+    }
+
+    private static FilterPredicate number(Accessor accessor, Operator operator, double number) {
+        switch (operator) {
+            case EQ:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value != null && value.isNumber() && value.doubleValue() == number;
+                };
+            case NE:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value == null || !value.isNumber() || value.doubleValue() != number;
+                };
+            case LT:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value != null && value.isNumber() && Double.compare(value.doubleValue(), number) < 0;
+                };
+            case LE:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value != null && value.isNumber() && Double.compare(value.doubleValue(), number) <= 0;
+                };
+            case GT:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value != null && value.isNumber() && Double.compare(value.doubleValue(), number) > 0;
+                };
+            default:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value != null && value.isNumber() && Double.compare(value.doubleValue(), number) >= 0;
+                };
+        }
+    }
+
+    private static FilterPredicate string(Accessor accessor, Operator operator, String string) {
+        switch (operator) {
+            case EQ:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value != null && value.isTextual() && string.equals(value.textValue());
+                };
+            case NE:
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value == null || !value.isTextual() || !string.equals(value.textValue());
+                };
+            default:
+                Operator op = operator;
+                return (current, root) -> {
+                    JsonNode value = accessor.value(current, root);
+                    return value != null && value.isTextual() && ordered(value.textValue().compareTo(string), op);
+                };
+        }
+    }
+
+    private static boolean compare(JsonNode left, Operator operator, JsonNode right) {
+        if (left == null || right == null) {
+            boolean equal = left == right;
+            return operator == Operator.EQ ? equal : operator == Operator.NE && !equal;
+        }
+        switch (operator) {
+            case EQ:
+                return equal(left, right);
+            case NE:
+                return !equal(left, right);
+            default:
+                if (left.isNumber() && right.isNumber()) {
+                    return ordered(Double.compare(left.doubleValue(), right.doubleValue()), operator);
+                }
+                if (left.isTextual() && right.isTextual()) {
+                    return ordered(left.textValue().compareTo(right.textValue()), operator);
+                }
+                return false;
+        }
+    }
+
+    private static boolean equal(JsonNode left, JsonNode right) {
+        if (left.isNumber() && right.isNumber()) {
+            return left.doubleValue() == right.doubleValue();
+        }
+        return left.equals(right);
+    }
+
+    private static boolean ordered(int order, Operator operator) {
+        switch (operator) {
+            case LT:
+                return order < 0;
+            case LE:
+                return order <= 0;
+            case GT:
+                return order > 0;
+            default:
+                return order >= 0;
+        }
+    }
+
+    private static Operator flip(Operator operator) {
+        switch (operator) {
+            case LT:
+                return Operator.GT;
+            case LE:
+                return Operator.GE;
+            case GT:
+                return Operator.LT;
+            case GE:
+                return Operator.LE;
+            default:
+                return operator;
+        }
+    }
+
+    /**
+     * Resolves an operand to its value, null if a path selects nothing. Indefinite paths yield an array of matches.
+     */
+    @FunctionalInterface
+    private interface Accessor {
+        JsonNode value(JsonNode current, JsonNode root);
+    }
+
+    private static Accessor accessor(Operand operand) {
+        if (operand.isLiteral()) {
+            JsonNode constant = constant(operand.asLiteral());
+            return (current, root) -> constant;
+        }
+        Path path = operand.asPath();
+        Object[] steps = steps(path);
+        if (steps != null && !path.isAbsolute()) {
+            return steps.length == 0 ? (current, root) -> current : (current, root) -> walk(current, steps);
+        }
+        if (steps != null) {
+            return (current, root) -> walk(requireRoot(path, root), steps);
+        }
+        return (current, root) -> {
+            List<JsonNode> matches = TreeEvaluator.select(path, path.isAbsolute() ? requireRoot(path, root) : current, root);
+            if (path.isDefinite()) {
+                return matches.isEmpty() ? null : matches.get(0);
+            }
+            ArrayNode array = JsonNodeFactory.instance.arrayNode(matches.size());
+            array.addAll(matches);
+            return array;
+        };
+    }
+
+    /**
+     * The property names and non-negative indexes of a path made only of such single selectors, or null.
+     */
+    private static Object[] steps(Path path) {
+        Object[] steps = new Object[path.size()];
+        for (int i = 0; i < path.size(); i++) {
+            Selector selector = path.selector(i);
+            if (selector instanceof PropertySelector && ((PropertySelector) selector).count() == 1) {
+                steps[i] = ((PropertySelector) selector).name(0);
+            } else if (selector instanceof IndexSelector && ((IndexSelector) selector).count() == 1
+                    && ((IndexSelector) selector).index(0) >= 0) {
+                steps[i] = ((IndexSelector) selector).index(0);
+            } else {
+                return null;
+            }
+        }
+        return steps;
+    }
+
+    private static JsonNode walk(JsonNode node, Object[] steps) {
+        for (int i = 0; i < steps.length && node != null; i++) {
+            Object step = steps[i];
+            node = step instanceof String ? node.get((String) step) : node.get((Integer) step);
+        }
+        return node;
+    }
+
+    private static JsonNode requireRoot(Path path, JsonNode root) {
+        if (root == null) {
+            throw new EvaluationException("Path " + path + " requires the document root");
+        }
+        return root;
+    }
+
+    private static JsonNode constant(Literal literal) {
+        switch (literal.type()) {
+            case STRING:
+                return TextNode.valueOf(literal.stringValue());
+            case NUMBER:
+                return DoubleNode.valueOf(literal.numberValue());
+            case BOOLEAN:
+                return BooleanNode.valueOf(literal.booleanValue());
+            case NULL:
+                return NullNode.getInstance();
+            case JSON:
+                return Json.readTree(literal.stringValue());
+            default:
+                return TextNode.valueOf(literal.text());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A filter expression compiled by {@link FilterCompiler}.
+ */
+@FunctionalInterface
+interface FilterPredicate {
+
+    /**
+     * @param root the document root, may be null if the expression does not reference it
+     */
+    boolean test(JsonNode current, JsonNode root);
+}
@@ -0,0 +1,93 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.java.jpath.parser.FunctionSelector;
+
+import java.util.Iterator;
+
+/**
+ * The trailing path functions. Aggregates apply to the numeric elements of an array and
+ * yield nothing when there are none.
+ */
+final class Functions {
+
+    private Functions() {
+    }
+
+    /**
+     * @return the function result or null if it is undefined for the node
+     */
+    static JsonNode apply(FunctionSelector function, JsonNode node) {
+        switch (function.name()) {
+            case "length":
+            case "size":
+                if (node.isArray() || node.isObject()) {
+                    return IntNode.valueOf(node.size());
+                }
+                return node.isTextual() ? IntNode.valueOf(node.textValue().length()) : null;
+            case "first":
+                return node.isArray() && node.size() > 0 ? node.get(0) : null;
+            case "last":
+                return node.isArray() && node.size() > 0 ? node.get(node.size() - 1) : null;
+            case "keys":
+                return node.isObject() ? keys(node) : null;
+            case "min":
+            case "max":
+            case "sum":
+            case "avg":
+            case "stddev":
+                return node.isArray() ? aggregate(function.name(), node) : null;
+            default:
+                throw new EvaluationException("Unknown function: " + function.name() + "()");
+        }
+    }
+
+    private static JsonNode keys(JsonNode node) {
+        ArrayNode keys = JsonNodeFactory.instance.arrayNode();
+        Iterator<String> names = node.fieldNames();
+        while (names.hasNext()) {
+            keys.add(names.next());
+        }
+        return keys;
+    }
+
+    private static JsonNode aggregate(String name, JsonNode array) {
+        int count = 0;
+        double sum = 0;
+        double squares = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < array.size(); i++) {
+            JsonNode element = array.get(i);
+            if (!element.isNumber()) {
+                continue;
+            }
+            double value = element.doubleValue();
+            count++;
+            sum += value;
+            squares += value * value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (count == 0) {
+            return null;
+        }
+        switch (name) {
+            case "min":
+                return DoubleNode.valueOf(min);
+            case "max":
+                return DoubleNode.valueOf(max);
+            case "sum":
+                return DoubleNode.valueOf(sum);
+            case "avg":
+                return DoubleNode.valueOf(sum / count);
+            default:
+                double mean = sum / count;
+                return DoubleNode.valueOf(Math.sqrt(squares / count - mean * mean));
+        }
+    }
+}
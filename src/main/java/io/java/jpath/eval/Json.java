@@ -0,0 +1,44 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Shared Jackson configuration. Single quoted strings are accepted so JSON literals in paths parse as written.
+ */
+final class Json {
+
+    static final ObjectMapper MAPPER = new ObjectMapper().configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+    static final JsonFactory FACTORY = MAPPER.getFactory();
+
+    private Json() {
+    }
+
+    static JsonNode readTree(JsonParser parser) {
+        try {
+            return MAPPER.readTree(parser);
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON", e);
+        }
+    }
+
+    static JsonNode readTree(byte[] json, int offset, int length) {
+        try {
+            return MAPPER.readTree(FACTORY.createParser(json, offset, length));
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON at offset: " + offset, e);
+        }
+    }
+
+    static JsonNode readTree(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON: " + json, e);
+        }
+    }
+}
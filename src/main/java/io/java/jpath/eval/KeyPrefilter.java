@@ -0,0 +1,140 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PropertySelector;
+import io.java.jpath.parser.Selector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rejects paths that cannot match a document before evaluating them.
+ * <p>
+ * A path requires every property it selects by a single name, such as {@code a} and {@code c} in
+ * {@code $.a[*].c} or {@code $..c}: the document must have such a key at some depth. Names in filters and in
+ * selectors of several names are not required. A scan of the document's tokens collects a 1024 bit bloom
+ * signature of its keys, two bits per key, and a path is a candidate only if all bits of its required keys
+ * are set. Candidates can be false positives; rejected paths never match.
+ */
+public final class KeyPrefilter {
+
+    private static final int WORDS = 16;
+    private static final int MASK = WORDS * 64 - 1;
+
+    private final List<Path> paths;
+    private final long[][] required;
+
+    private KeyPrefilter(List<Path> paths) {
+        this.paths = Collections.unmodifiableList(new ArrayList<>(paths));
+        this.required = new long[this.paths.size()][];
+        for (int p = 0; p < required.length; p++) {
+            required[p] = new long[WORDS];
+            for (String key : requiredKeys(this.paths.get(p))) {
+                add(required[p], key);
+            }
+        }
+    }
+
+    public static KeyPrefilter of(List<Path> paths) {
+        return new KeyPrefilter(paths);
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    public Path path(int i) {
+        return paths.get(i);
+    }
+
+    /**
+     * The property names the path selects singly, in path order.
+     */
+    public static Set<String> requiredKeys(Path path) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Selector selector : path.selectors()) {
+            if (selector instanceof PropertySelector && ((PropertySelector) selector).count() == 1) {
+                keys.add(((PropertySelector) selector).name(0));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * The indexes of the paths that may match the document; the others cannot.
+     */
+    public BitSet candidates(byte[] json) {
+        return candidates(signature(json));
+    }
+
+    /**
+     * Evaluates the candidate paths against the document, which is only read as a tree if there are any.
+     * Matches are passed in path order.
+     */
+    public void evaluate(byte[] json, MatchSink sink) {
+        BitSet candidates = candidates(json);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        JsonNode root = Json.readTree(json, 0, json.length);
+        for (int p = candidates.nextSetBit(0); p >= 0; p = candidates.nextSetBit(p + 1)) {
+            int path = p;
+            TreeEvaluator.evaluate(paths.get(p), root, match -> sink.match(path, match));
+        }
+    }
+
+    private BitSet candidates(long[] signature) {
+        BitSet candidates = new BitSet(paths.size());
+        for (int p = 0; p < required.length; p++) {
+            if (covers(signature, required[p])) {
+                candidates.set(p);
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean covers(long[] signature, long[] keys) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((signature[i] & keys[i]) != keys[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The bloom signature of every key in the document, read with the streaming parser without building values.
+     */
+    static long[] signature(byte[] json) {
+        long[] signature = new long[WORDS];
+        try (JsonParser parser = Json.FACTORY.createParser(json)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token == JsonToken.FIELD_NAME) {
+                    add(signature, parser.getCurrentName());
+                }
+            }
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON", e);
+        }
+        return signature;
+    }
+
+    private static void add(long[] signature, String key) {
+        int hash = key.hashCode() * 0x9e3779b9;
+        set(signature, hash >>> 22);
+        set(signature, hash >>> 12);
+    }
+
+    private static void set(long[] signature, int bit) {
+        bit &= MASK;
+        signature[bit >>> 6] |= 1L << bit;
+    }
+}
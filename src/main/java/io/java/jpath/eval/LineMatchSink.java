@@ -0,0 +1,13 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the matches of a {@link PathSet} in a JSON Lines file, tagged with the byte offset of the line
+ * and the index of the path that matched.
+ */
+@FunctionalInterface
+public interface LineMatchSink {
+
+    void match(long offset, int path, JsonNode value);
+}
@@ -0,0 +1,12 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the matches of a {@link PathSet}, tagged with the index of the path that matched.
+ */
+@FunctionalInterface
+public interface MatchSink {
+
+    void match(int path, JsonNode value);
+}
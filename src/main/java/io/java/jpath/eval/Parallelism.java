@@ -0,0 +1,157 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.metrics.Instrumentations;
+import io.java.jpath.parser.Path;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Splits the children of arrays and objects with at least {@code threshold} children across a fork/join pool.
+ * The children are cut into contiguous chunks that each collect their matches in their own list; the lists are
+ * forwarded in chunk order, so results are in the same order as sequential evaluation.
+ * <p>
+ * While instrumentation is enabled it also counts the nodes visited and skipped by the evaluation it is
+ * passed through; a {@link #sequential()} one does only that.
+ */
+final class Parallelism {
+
+    final LongAdder visited = new LongAdder();
+    final LongAdder skipped = new LongAdder();
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    private Parallelism(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be greater than 0");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    static Parallelism of(ForkJoinPool pool, int threshold) {
+        return new Parallelism(requireNonNull(pool), threshold);
+    }
+
+    /**
+     * Never splits.
+     */
+    static Parallelism sequential() {
+        return new Parallelism(null, Integer.MAX_VALUE);
+    }
+
+    boolean splits(JsonNode node) {
+        return pool != null && node.size() >= threshold;
+    }
+
+    /**
+     * Evaluates the path from {@code next} on every child that passes the filter, which may be null.
+     */
+    void each(Path path, int next, JsonNode node, JsonNode root, FilterPredicate filter, Consumer<? super JsonNode> sink) {
+        run(new Chunks(path, next, node, root, filter, false), sink);
+    }
+
+    /**
+     * Deep scans every child with the path from {@code next}.
+     */
+    void scan(Path path, int next, JsonNode node, JsonNode root, Consumer<? super JsonNode> sink) {
+        run(new Chunks(path, next, node, root, null, true), sink);
+    }
+
+    private void run(Chunks chunks, Consumer<? super JsonNode> sink) {
+        Split all = new Split(chunks, 0, chunks.results.length);
+        if (ForkJoinTask.getPool() == pool) {
+            all.invoke();
+        } else {
+            pool.invoke(all);
+        }
+        for (List<JsonNode> result : chunks.results) {
+            result.forEach(sink);
+        }
+    }
+
+    private final class Chunks {
+
+        private final Path path;
+        private final int next;
+        private final JsonNode node;
+        private final JsonNode[] values;
+        private final JsonNode root;
+        private final FilterPredicate filter;
+        private final boolean scan;
+        private final int size;
+        private final int chunkSize;
+        private final List<JsonNode>[] results;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Chunks(Path path, int next, JsonNode node, JsonNode root, FilterPredicate filter, boolean scan) {
+            this.path = path;
+            this.next = next;
+            this.node = node;
+            this.values = node.isArray() ? null : values(node);
+            this.root = root;
+            this.filter = filter;
+            this.scan = scan;
+            this.size = node.size();
+            this.chunkSize = Math.max(1, size / (8 * pool.getParallelism()));
+            this.results = new List[(size + chunkSize - 1) / chunkSize];
+        }
+
+        private void evaluate(int chunk) {
+            List<JsonNode> matches = new ArrayList<>();
+            for (int i = chunk * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+                JsonNode child = values == null ? node.get(i) : values[i];
+                if (scan) {
+                    TreeEvaluator.scan(path, next, child, root, matches::add, Parallelism.this);
+                } else if (filter == null || filter.test(child, root)) {
+                    TreeEvaluator.evaluate(path, next, child, root, matches::add, Parallelism.this);
+                } else if (Instrumentations.ENABLED) {
+                    skipped.increment();
+                }
+            }
+            results[chunk] = matches;
+        }
+
+        private JsonNode[] values(JsonNode object) {
+            JsonNode[] values = new JsonNode[object.size()];
+            int i = 0;
+            for (Iterator<JsonNode> children = object.elements(); children.hasNext(); ) {
+                values[i++] = children.next();
+            }
+            return values;
+        }
+    }
+
+    private static final class Split extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunks chunks;
+        private final int from;
+        private final int to;
+
+        private Split(Chunks chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunks.evaluate(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Split(chunks, from, mid), new Split(chunks, mid, to));
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package io.java.jpath.eval;
+
+import io.java.jpath.parser.IndexSelector;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PropertySelector;
+import io.java.jpath.parser.Selector;
+import io.java.jpath.parser.SelectorType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emits a {@link CompiledPath} subclass per path as a class file.
+ * <p>
+ * Every property, index, wildcard and filter selector becomes a private method {@code s<position>(node, root,
+ * sink)} that selects its children and calls the next step, or the sink after the last selector. Other
+ * selectors hand over to {@link CompiledPath#tail}. The classes use version 49 so no stack map frames have to
+ * be computed, and each is defined in its own class loader so it can be unloaded with the compiled path.
+ */
+final class PathCompiler {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private static final String COMPILED_PATH = "io/java/jpath/eval/CompiledPath";
+    private static final String JSON_NODE = "com/fasterxml/jackson/databind/JsonNode";
+    private static final String STEP = "(L" + JSON_NODE + ";L" + JSON_NODE + ";Ljava/util/function/Consumer;)V";
+
+    private static final int NODE = 1;
+    private static final int ROOT = 2;
+    private static final int SINK = 3;
+    private static final int CHILD = 4;
+    private static final int ITERATOR = 5;
+
+    private final Path path;
+    private final String name;
+    private final ConstantPool pool = new ConstantPool();
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private int methodCount;
+
+    private PathCompiler(Path path, String name) {
+        this.path = path;
+        this.name = name;
+    }
+
+    static CompiledPath compile(Path path) {
+        String name = "io/java/jpath/eval/gen/CompiledPath" + COUNTER.incrementAndGet();
+        byte[] classFile = new PathCompiler(path, name).emit();
+        try {
+            Class<?> type = new Loader(CompiledPath.class.getClassLoader()).define(name.replace('/', '.'), classFile);
+            return (CompiledPath) type.getConstructor(Path.class).newInstance(path);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new EvaluationException("Failed to compile " + path, e);
+        }
+    }
+
+    private byte[] emit() {
+        Code init = new Code();
+        init.op(0x2a).op(0x2b).op(0xb7).u2(pool.method(COMPILED_PATH, "<init>", "(Lio/java/jpath/parser/Path;)V")).op(0xb1);
+        method(0x0001, "<init>", "(Lio/java/jpath/parser/Path;)V", init);
+
+        Code run = new Code();
+        next(run, 0, NODE);
+        run.op(0xb1);
+        method(0x0004, "run", STEP, run);
+
+        for (int i = 0; i < path.size(); i++) {
+            if (inlined(path.selector(i))) {
+                method(0x0002, "s" + i, STEP, step(i));
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(out)) {
+            int thisClass = pool.type(name);
+            int superClass = pool.type(COMPILED_PATH);
+            data.writeInt(0xcafebabe);
+            data.writeShort(0);
+            data.writeShort(49);
+            pool.write(data);
+            data.writeShort(0x0031);
+            data.writeShort(thisClass);
+            data.writeShort(superClass);
+            data.writeShort(0);
+            data.writeShort(0);
+            data.writeShort(methodCount);
+            methods.writeTo(data);
+            data.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean inlined(Selector selector) {
+        switch (selector.type()) {
+            case PROPERTY:
+            case INDEX:
+            case WILDCARD:
+            case FILTER:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Code step(int position) {
+        Code code = new Code();
+        Selector selector = path.selector(position);
+        switch (selector.type()) {
+            case PROPERTY:
+                PropertySelector property = (PropertySelector) selector;
+                for (int i = 0; i < property.count(); i++) {
+                    code.load(NODE).ldc(pool.string(property.name(i)));
+                    code.op(0xb6).u2(pool.method(JSON_NODE, "get", "(Ljava/lang/String;)L" + JSON_NODE + ";"));
+                    child(code, position);
+                }
+                break;
+            case INDEX:
+                IndexSelector index = (IndexSelector) selector;
+                for (int i = 0; i < index.count(); i++) {
+                    code.load(NODE);
+                    if (index.index(i) < 0) {
+                        code.load(NODE).op(0xb6).u2(pool.method(JSON_NODE, "size", "()I"));
+                        code.push(index.index(i), pool).op(0x60);
+                    } else {
+                        code.push(index.index(i), pool);
+                    }
+                    code.op(0xb6).u2(pool.method(JSON_NODE, "get", "(I)L" + JSON_NODE + ";"));
+                    child(code, position);
+                }
+                break;
+            default:
+                code.load(NODE).op(0xb6).u2(pool.method(JSON_NODE, "elements", "()Ljava/util/Iterator;"));
+                code.store(ITERATOR);
+                int loop = code.position();
+                code.load(ITERATOR).op(0xb9).u2(pool.interfaceMethod("java/util/Iterator", "hasNext", "()Z")).u1(1).u1(0);
+                int exit = code.jump(0x99);
+                code.load(ITERATOR).op(0xb9).u2(pool.interfaceMethod("java/util/Iterator", "next", "()Ljava/lang/Object;")).u1(1).u1(0);
+                code.op(0xc0).u2(pool.type(JSON_NODE)).store(CHILD);
+                if (selector.is(SelectorType.FILTER)) {
+                    code.load(0).push(position, pool).load(CHILD).load(ROOT);
+                    code.op(0xb6).u2(pool.method(COMPILED_PATH, "test", "(IL" + JSON_NODE + ";L" + JSON_NODE + ";)Z"));
+                    code.patch(code.jump(0x99), loop);
+                }
+                next(code, position + 1, CHILD);
+                code.patch(code.jump(0xa7), loop);
+                code.patch(exit, code.position());
+                break;
+        }
+        return code.op(0xb1);
+    }
+
+    /**
+     * Continues with the selected child on the stack if it is not null.
+     */
+    private void child(Code code, int position) {
+        code.store(CHILD).load(CHILD);
+        int missing = code.jump(0xc6);
+        next(code, position + 1, CHILD);
+        code.patch(missing, code.position());
+    }
+
+    /**
+     * Applies the selectors from {@code position} on to the node in the local.
+     */
+    private void next(Code code, int position, int node) {
+        if (position == path.size()) {
+            code.load(SINK).load(node);
+            code.op(0xb9).u2(pool.interfaceMethod("java/util/function/Consumer", "accept", "(Ljava/lang/Object;)V")).u1(2).u1(0);
+        } else if (inlined(path.selector(position))) {
+            code.load(0).load(node).load(ROOT).load(SINK);
+            code.op(0xb7).u2(pool.method(name, "s" + position, STEP));
+        } else {
+            code.load(0).push(position, pool).load(node).load(ROOT).load(SINK);
+            code.op(0xb6).u2(pool.method(COMPILED_PATH, "tail", "(IL" + JSON_NODE + ";L" + JSON_NODE + ";Ljava/util/function/Consumer;)V"));
+        }
+    }
+
+    private void method(int access, String methodName, String descriptor, Code code) {
+        try {
+            DataOutputStream data = new DataOutputStream(methods);
+            data.writeShort(access);
+            data.writeShort(pool.utf8(methodName));
+            data.writeShort(pool.utf8(descriptor));
+            data.writeShort(1);
+            data.writeShort(pool.utf8("Code"));
+            data.writeInt(12 + code.bytes.size());
+            data.writeShort(6);
+            data.writeShort(6);
+            data.writeInt(code.bytes.size());
+            code.bytes.writeTo(data);
+            data.writeShort(0);
+            data.writeShort(0);
+            methodCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        Code load(int local) {
+            return local <= 3 ? op(0x2a + local) : op(0x19).u1(local);
+        }
+
+        Code store(int local) {
+            return local <= 3 ? op(0x4b + local) : op(0x3a).u1(local);
+        }
+
+        Code ldc(int constant) {
+            return constant < 256 ? op(0x12).u1(constant) : op(0x13).u2(constant);
+        }
+
+        Code push(int value, ConstantPool pool) {
+            if (value >= -1 && value <= 5) {
+                return op(0x03 + value);
+            }
+            if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                return op(0x10).u1(value);
+            }
+            if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                return op(0x11).u2(value);
+            }
+            return ldc(pool.integer(value));
+        }
+
+        int position() {
+            return bytes.size();
+        }
+
+        /**
+         * Writes a branch with a placeholder offset, returns its position for {@link #patch(int, int)}.
+         */
+        int jump(int opcode) {
+            int at = position();
+            op(opcode).u2(0);
+            return at;
+        }
+
+        void patch(int jump, int target) {
+            byte[] code = bytes.toByteArray();
+            int offset = target - jump;
+            code[jump + 1] = (byte) (offset >>> 8);
+            code[jump + 2] = (byte) offset;
+            bytes.reset();
+            bytes.write(code, 0, code.length);
+        }
+    }
+
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        private final DataOutputStream data = new DataOutputStream(entries);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, () -> {
+                data.writeByte(1);
+                data.writeUTF(value);
+            });
+        }
+
+        int integer(int value) {
+            return entry("I" + value, () -> {
+                data.writeByte(3);
+                data.writeInt(value);
+            });
+        }
+
+        int type(String internalName) {
+            int utf8 = utf8(internalName);
+            return entry("C" + internalName, () -> {
+                data.writeByte(7);
+                data.writeShort(utf8);
+            });
+        }
+
+        int string(String value) {
+            int utf8 = utf8(value);
+            return entry("S" + value, () -> {
+                data.writeByte(8);
+                data.writeShort(utf8);
+            });
+        }
+
+        int method(String owner, String name, String descriptor) {
+            return member(10, owner, name, descriptor);
+        }
+
+        int interfaceMethod(String owner, String name, String descriptor) {
+            return member(11, owner, name, descriptor);
+        }
+
+        private int member(int tag, String owner, String name, String descriptor) {
+            int type = type(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + ' ' + descriptor, () -> {
+                data.writeByte(12);
+                data.writeShort(nameIndex);
+                data.writeShort(descriptorIndex);
+            });
+            return entry("M" + tag + owner + '.' + name + descriptor, () -> {
+                data.writeByte(tag);
+                data.writeShort(type);
+                data.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, Entry entry) {
+            Integer index = indexes.get(key);
+            if (index == null) {
+                try {
+                    entry.write();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                index = count++;
+                indexes.put(key, index);
+            }
+            return index;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeShort(count);
+            entries.writeTo(out);
+        }
+
+        private interface Entry {
+            void write() throws IOException;
+        }
+    }
+
+    private static final class Loader extends ClassLoader {
+
+        private Loader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.Selector;
+import io.java.jpath.parser.SelectorType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of compiled paths merged into a trie of selectors, so that paths sharing a prefix such as
+ * {@code $.store.book[*].title} and {@code $.store.book[*].price} are evaluated together in a single pass
+ * over the document by the {@link StreamingEvaluator}.
+ * <p>
+ * Node 0 is the root; every other node is reached through one selector and knows the paths that pass
+ * through it and the paths that end at it.
+ */
+public final class PathSet {
+
+    private final List<Path> paths;
+    private final Node[] nodes;
+    private final boolean wholeDocument;
+    private final boolean definite;
+
+    private PathSet(List<Path> paths) {
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("path set must not be empty");
+        }
+        this.paths = Collections.unmodifiableList(new ArrayList<>(paths));
+        List<Node> trie = new ArrayList<>();
+        trie.add(new Node(null, 0, -1));
+        boolean wholeDocument = false;
+        boolean definite = true;
+        for (int p = 0; p < this.paths.size(); p++) {
+            Path path = this.paths.get(p);
+            wholeDocument |= Paths.referencesRoot(path);
+            definite &= path.isDefinite();
+            boolean ordered = !Paths.scans(path);
+            int node = 0;
+            trie.get(0).paths = append(trie.get(0).paths, p);
+            trie.get(0).ordered |= ordered;
+            for (int i = 0; i < path.size(); i++) {
+                node = child(trie, node, path.selector(i));
+                trie.get(node).paths = append(trie.get(node).paths, p);
+                trie.get(node).ordered |= ordered;
+            }
+            trie.get(node).terminals = append(trie.get(node).terminals, p);
+        }
+        this.nodes = trie.toArray(new Node[0]);
+        this.wholeDocument = wholeDocument;
+        this.definite = definite;
+    }
+
+    public static PathSet of(Path... paths) {
+        return new PathSet(Arrays.asList(paths));
+    }
+
+    public static PathSet of(List<Path> paths) {
+        return new PathSet(paths);
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    public Path path(int i) {
+        return paths.get(i);
+    }
+
+    public List<Path> paths() {
+        return paths;
+    }
+
+    /**
+     * The number of trie nodes, the root included.
+     */
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * @return the matches of each path, in the order of the paths
+     */
+    public List<List<JsonNode>> evaluate(byte[] json) {
+        try (JsonParser parser = Json.FACTORY.createParser(json)) {
+            return evaluate(parser);
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON", e);
+        }
+    }
+
+    public List<List<JsonNode>> evaluate(InputStream json) {
+        try (JsonParser parser = Json.FACTORY.createParser(json)) {
+            return evaluate(parser);
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON", e);
+        }
+    }
+
+    public List<List<JsonNode>> evaluate(JsonParser parser) {
+        List<List<JsonNode>> matches = new ArrayList<>(paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            matches.add(new ArrayList<>());
+        }
+        evaluate(parser, (path, value) -> matches.get(path).add(value));
+        return matches;
+    }
+
+    public void evaluate(JsonParser parser, MatchSink sink) {
+        StreamingEvaluator evaluator = StreamingEvaluator.of(this, parser);
+        for (JsonNode match = evaluator.next(); match != null; match = evaluator.next()) {
+            sink.match(evaluator.matchedPath(), match);
+        }
+    }
+
+    Node node(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * True if a filter refers to {@code $}, so the whole document has to be read.
+     */
+    boolean isWholeDocument() {
+        return wholeDocument;
+    }
+
+    boolean isDefinite() {
+        return definite;
+    }
+
+    private static int child(List<Node> trie, int parent, Selector selector) {
+        Node node = trie.get(parent);
+        for (int child : node.children) {
+            if (trie.get(child).selector.equals(selector)) {
+                return child;
+            }
+        }
+        int id = trie.size();
+        trie.add(new Node(selector, node.position + 1, parent));
+        node.children = append(node.children, id);
+        if (selector.is(SelectorType.SCAN)) {
+            node.scanChildren = append(node.scanChildren, id);
+        }
+        return id;
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] grown = Arrays.copyOf(array, array.length + 1);
+        grown[array.length] = value;
+        return grown;
+    }
+
+    static final class Node {
+        private static final int[] NONE = new int[0];
+
+        /**
+         * The selector leading to this node, null for the root.
+         */
+        final Selector selector;
+        /**
+         * The number of selectors consumed to reach this node.
+         */
+        final int position;
+        final int parent;
+        int[] children = NONE;
+        int[] scanChildren = NONE;
+        int[] paths = NONE;
+        int[] terminals = NONE;
+        /**
+         * True if a path through this node has no deep scan, so its matches must come in selector order.
+         */
+        boolean ordered;
+
+        private Node(Selector selector, int position, int parent) {
+            this.selector = selector;
+            this.position = position;
+            this.parent = parent;
+        }
+
+        boolean isScan() {
+            return selector != null && selector.is(SelectorType.SCAN);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.java.jpath.eval;
+
+import io.java.jpath.parser.ComparisonExpression;
+import io.java.jpath.parser.Expression;
+import io.java.jpath.parser.FilterSelector;
+import io.java.jpath.parser.FunctionSelector;
+import io.java.jpath.parser.LogicalExpression;
+import io.java.jpath.parser.NotExpression;
+import io.java.jpath.parser.Operand;
+import io.java.jpath.parser.OperandExpression;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.Selector;
+import io.java.jpath.parser.SelectorType;
+
+final class Paths {
+
+    private Paths() {
+    }
+
+    /**
+     * True if a filter or function argument of the path refers to the document root, in which case the
+     * whole document has to be available while evaluating it.
+     */
+    static boolean referencesRoot(Path path) {
+        for (Selector selector : path.selectors()) {
+            switch (selector.type()) {
+                case FILTER:
+                    if (referencesRoot(((FilterSelector) selector).predicate())) {
+                        return true;
+                    }
+                    break;
+                case FUNCTION:
+                    for (Operand argument : ((FunctionSelector) selector).arguments()) {
+                        if (referencesRoot(argument)) {
+                            return true;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if the path has a deep scan.
+     */
+    static boolean scans(Path path) {
+        for (Selector selector : path.selectors()) {
+            if (selector.is(SelectorType.SCAN)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean referencesRoot(Expression expression) {
+        switch (expression.type()) {
+            case OR:
+            case AND:
+                LogicalExpression logical = (LogicalExpression) expression;
+                return referencesRoot(logical.left()) || referencesRoot(logical.right());
+            case NOT:
+                return referencesRoot(((NotExpression) expression).operand());
+            case COMPARISON:
+                ComparisonExpression comparison = (ComparisonExpression) expression;
+                return referencesRoot(comparison.left()) || referencesRoot(comparison.right());
+            default:
+                return referencesRoot(((OperandExpression) expression).operand());
+        }
+    }
+
+    private static boolean referencesRoot(Operand operand) {
+        return operand.isPath() && (operand.asPath().isAbsolute() || referencesRoot(operand.asPath()));
+    }
+}
@@ -0,0 +1,102 @@
+package io.java.jpath.eval;
+
+import io.java.jpath.parser.Literal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles regex literals through a shared bounded LRU cache keyed on the literal text, flags included, and
+ * matches them under a step budget. The cache is separate from the {@code PathCache}s, so pattern lookups
+ * are not reported as path cache accesses.
+ * <p>
+ * {@code java.util.regex} backtracks, so a pattern such as {@code /(a+)+b/} can take exponential time on a
+ * short input. Matching reads the input through a view that counts character reads and fails the evaluation
+ * once more than {@code jpath.regex.maxSteps} reads (default 1,000,000, 0 disables the budget) are made.
+ * {@code jpath.regex.cacheSize} bounds the number of cached patterns (default 512).
+ */
+final class Regexes {
+
+    static final long MAX_STEPS = Long.getLong("jpath.regex.maxSteps", 1_000_000L);
+
+    private static final int CACHE_SIZE = Integer.getInteger("jpath.regex.cacheSize", 512);
+    private static final Map<String, Pattern> PATTERNS = new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private Regexes() {
+    }
+
+    static Pattern pattern(Literal regex) {
+        String text = regex.text();
+        synchronized (PATTERNS) {
+            Pattern pattern = PATTERNS.get(text);
+            if (pattern != null) {
+                return pattern;
+            }
+        }
+        Pattern compiled = compile(text);
+        synchronized (PATTERNS) {
+            Pattern raced = PATTERNS.putIfAbsent(text, compiled);
+            return raced != null ? raced : compiled;
+        }
+    }
+
+    static boolean matches(Pattern pattern, String input) {
+        return matches(pattern, input, MAX_STEPS);
+    }
+
+    static boolean matches(Pattern pattern, String input, long maxSteps) {
+        if (maxSteps <= 0) {
+            return pattern.matcher(input).matches();
+        }
+        return pattern.matcher(new BudgetedInput(input, pattern, maxSteps)).matches();
+    }
+
+    private static Pattern compile(String text) {
+        Literal regex = Literal.regex(text);
+        return Pattern.compile(regex.stringValue(), regex.isCaseInsensitive() ? Pattern.CASE_INSENSITIVE : 0);
+    }
+
+    private static final class BudgetedInput implements CharSequence {
+
+        private final String input;
+        private final Pattern pattern;
+        private final long maxSteps;
+        private long remaining;
+
+        private BudgetedInput(String input, Pattern pattern, long maxSteps) {
+            this.input = input;
+            this.pattern = pattern;
+            this.maxSteps = maxSteps;
+            this.remaining = maxSteps;
+        }
+
+        @Override
+        public int length() {
+            return input.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remaining < 0) {
+                throw new EvaluationException("Regex /" + pattern + "/ exceeded " + maxSteps + " steps");
+            }
+            return input.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return input.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return input;
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.metrics.Instrumentations;
+import io.java.jpath.parser.FilterSelector;
+import io.java.jpath.parser.IndexSelector;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PropertySelector;
+import io.java.jpath.parser.Selector;
+import io.java.jpath.parser.SliceSelector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates a {@link PathSet} directly against a Jackson token stream without building a tree.
+ * <p>
+ * Each open container carries the set of trie nodes whose selectors still apply to it. Members and elements
+ * no node can select are skipped with {@link JsonParser#skipChildren()}, containers whose remaining members
+ * cannot match are skipped to their end, and evaluation stops as soon as nothing further can match, such as
+ * once every path of a set of definite paths has matched. Only matches are materialized, together with the
+ * filter candidates and arrays indexed from the end that need a tree to be decided; those are finished by the
+ * {@link TreeEvaluator}. Path sets whose filters refer to {@code $} read the whole document.
+ * <p>
+ * Each path yields the matches the {@link TreeEvaluator} yields, in the same order for paths without a deep
+ * scan: values selected by a union whose members may come out of document order, such as {@code ['d', 'c']}
+ * or {@code [2, 0]}, are materialized and evaluated as a tree. Matches of paths with a deep scan come in
+ * document order.
+ * <p>
+ * Matches are pulled with {@link #next()}. Evaluation may stop before the end of the document, the parser is
+ * left where it stopped and is not closed.
+ */
+public final class StreamingEvaluator {
+
+    private static final int FILTER_CANDIDATE = 1 << 30;
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private final PathSet paths;
+    private JsonParser parser;
+    private final Emitter[] emitters;
+    private final ArrayDeque<JsonNode> matches = new ArrayDeque<>();
+    private final ArrayDeque<Integer> matchedPaths = new ArrayDeque<>();
+    private final boolean[] satisfied;
+    private int unsatisfied;
+
+    private Frame[] frames = new Frame[8];
+    private int depth;
+    private int live;
+    private int[] scratch = new int[8];
+    private boolean started;
+    private boolean done;
+    private int matchedPath = -1;
+    private long visited;
+    private long skipped;
+    private long nanos;
+    private long[] matchCounts;
+
+    private StreamingEvaluator(PathSet paths, JsonParser parser) {
+        this.paths = requireNonNull(paths);
+        this.parser = requireNonNull(parser);
+        this.emitters = new Emitter[paths.size()];
+        for (int i = 0; i < emitters.length; i++) {
+            emitters[i] = new Emitter(i);
+        }
+        this.satisfied = new boolean[paths.size()];
+        this.unsatisfied = paths.size();
+        if (Instrumentations.ENABLED) {
+            this.matchCounts = new long[paths.size()];
+        }
+    }
+
+    /**
+     * @param parser positioned before the value to evaluate, or on its first token
+     */
+    public static StreamingEvaluator of(PathSet paths, JsonParser parser) {
+        return new StreamingEvaluator(paths, parser);
+    }
+
+    /**
+     * Starts over on another document, keeping the frames and buffers grown so far.
+     */
+    StreamingEvaluator reset(JsonParser parser) {
+        this.parser = requireNonNull(parser);
+        for (int i = 0; i < depth; i++) {
+            frames[i].states = null;
+        }
+        depth = 0;
+        live = 0;
+        matches.clear();
+        matchedPaths.clear();
+        Arrays.fill(satisfied, false);
+        unsatisfied = paths.size();
+        started = false;
+        done = false;
+        matchedPath = -1;
+        visited = 0;
+        skipped = 0;
+        nanos = 0;
+        matchCounts = Instrumentations.ENABLED ? new long[paths.size()] : null;
+        return this;
+    }
+
+    public static StreamingEvaluator of(Path path, JsonParser parser) {
+        return new StreamingEvaluator(PathSet.of(path), parser);
+    }
+
+    public static List<JsonNode> evaluate(Path path, JsonParser parser) {
+        List<JsonNode> matches = new ArrayList<>();
+        evaluate(path, parser, matches::add);
+        return matches;
+    }
+
+    public static void evaluate(Path path, JsonParser parser, Consumer<? super JsonNode> sink) {
+        StreamingEvaluator evaluator = of(path, parser);
+        for (JsonNode match = evaluator.next(); match != null; match = evaluator.next()) {
+            sink.accept(match);
+        }
+    }
+
+    public static List<JsonNode> evaluate(Path path, byte[] json) {
+        return PathSet.of(path).evaluate(json).get(0);
+    }
+
+    public static List<JsonNode> evaluate(Path path, InputStream json) {
+        return PathSet.of(path).evaluate(json).get(0);
+    }
+
+    /**
+     * The matches as an ordered, sequential stream that reads the document only as far as it is consumed.
+     * Closing the stream closes the parser.
+     */
+    public static Stream<JsonNode> stream(Path path, InputStream json) {
+        JsonParser parser;
+        try {
+            parser = Json.FACTORY.createParser(json);
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON", e);
+        }
+        return StreamSupport.stream(of(path, parser).spliterator(), false).onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new EvaluationException("Failed to close JSON parser", e);
+            }
+        });
+    }
+
+    /**
+     * Pulls matches with {@link #next()}, see {@link #spliterator()}.
+     */
+    public Iterator<JsonNode> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * An ordered spliterator of the remaining matches, each one is found by reading the document as it is
+     * requested. It does not split.
+     */
+    public Spliterator<JsonNode> spliterator() {
+        return new Spliterators.AbstractSpliterator<JsonNode>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super JsonNode> action) {
+                JsonNode match = next();
+                if (match == null) {
+                    return false;
+                }
+                action.accept(match);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the next match, or null when no further match is possible
+     */
+    public JsonNode next() {
+        long start = Instrumentations.ENABLED ? System.nanoTime() : 0;
+        try {
+            while (matches.isEmpty() && !done) {
+                step();
+            }
+        } catch (IOException e) {
+            throw new EvaluationException("Failed to read JSON", e);
+        }
+        JsonNode match = matches.poll();
+        matchedPath = match == null ? -1 : matchedPaths.poll();
+        if (Instrumentations.ENABLED) {
+            record(match, start);
+        }
+        return match;
+    }
+
+    /**
+     * @return the index in the {@link PathSet} of the path that selected the last match returned by {@link #next()}
+     */
+    public int matchedPath() {
+        return matchedPath;
+    }
+
+    /**
+     * Reports every path of the set once the evaluator is exhausted, with the nodes visited and skipped by
+     * the whole pass.
+     */
+    private void record(JsonNode match, long start) {
+        if (matchCounts == null) {
+            return;
+        }
+        nanos += System.nanoTime() - start;
+        if (match != null) {
+            matchCounts[matchedPath]++;
+            return;
+        }
+        for (int p = 0; p < paths.size(); p++) {
+            Instrumentations.INSTALLED.evaluated(paths.path(p).source(), visited, skipped, matchCounts[p], nanos);
+        }
+        matchCounts = null;
+    }
+
+    private void step() throws IOException {
+        if (!started) {
+            started = true;
+            start();
+            return;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            done = true;
+            return;
+        }
+        Frame frame = frames[depth - 1];
+        switch (token) {
+            case END_OBJECT:
+            case END_ARRAY:
+                pop();
+                break;
+            case FIELD_NAME:
+                String name = parser.getCurrentName();
+                token = parser.nextToken();
+                if (frame.dead) {
+                    skip();
+                } else {
+                    child(frame, token, childStates(frame, name, -1));
+                }
+                break;
+            default:
+                int index = frame.index++;
+                if (!frame.dead && index > frame.maxIndex) {
+                    kill(frame);
+                }
+                if (frame.dead) {
+                    skip();
+                } else {
+                    child(frame, token, childStates(frame, null, index));
+                }
+        }
+        if (depth == 0 || live == 0) {
+            done = true;
+        }
+    }
+
+    private void start() throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token == null) {
+            done = true;
+        } else if (paths.isWholeDocument()) {
+            JsonNode root = Json.readTree(parser);
+            for (int p = 0; p < paths.size(); p++) {
+                TreeEvaluator.evaluate(paths.path(p), 0, root, root, emitters[p]);
+            }
+            done = true;
+        } else {
+            value(token, new int[]{0});
+            done |= depth == 0;
+        }
+    }
+
+    private void child(Frame frame, JsonToken token, int count) throws IOException {
+        if (frame.pendingProperties == 0) {
+            kill(frame);
+        }
+        if (count == 0) {
+            skip();
+            return;
+        }
+        int[] base = new int[count];
+        System.arraycopy(scratch, 0, base, 0, count);
+        value(token, base);
+    }
+
+    private void value(JsonToken token, int[] base) throws IOException {
+        visited++;
+        boolean materialize = false;
+        int count = 0;
+        for (int state : base) {
+            if ((state & FILTER_CANDIDATE) != 0) {
+                materialize = true;
+                continue;
+            }
+            count = add(state, count);
+            for (int scan : paths.node(state).scanChildren) {
+                count = add(scan, count);
+            }
+        }
+        for (int i = 0; i < count && !materialize; i++) {
+            materialize = needsTree(paths.node(scratch[i]), token);
+        }
+        if (materialize) {
+            materialize(base);
+        } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            int[] states = new int[count];
+            System.arraycopy(scratch, 0, states, 0, count);
+            push(token == JsonToken.START_ARRAY, states);
+        }
+    }
+
+    private boolean needsTree(PathSet.Node node, JsonToken token) {
+        if (node.terminals.length > 0) {
+            return true;
+        }
+        for (int child : node.children) {
+            Selector selector = paths.node(child).selector;
+            switch (selector.type()) {
+                case FUNCTION:
+                    return true;
+                case PROPERTY:
+                    if (token == JsonToken.START_OBJECT && ((PropertySelector) selector).count() > 1
+                            && paths.node(child).ordered) {
+                        return true;
+                    }
+                    break;
+                case INDEX:
+                    if (token == JsonToken.START_ARRAY && !((IndexSelector) selector).isAscending()
+                            && (((IndexSelector) selector).needsLength() || paths.node(child).ordered)) {
+                        return true;
+                    }
+                    break;
+                case SLICE:
+                    if (token == JsonToken.START_ARRAY && ((SliceSelector) selector).needsLength()) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private void materialize(int[] base) {
+        JsonNode value = Json.readTree(parser);
+        for (int state : base) {
+            if ((state & FILTER_CANDIDATE) == 0) {
+                for (int p : paths.node(state).terminals) {
+                    emit(p, value);
+                }
+            }
+        }
+        for (int state : base) {
+            if ((state & FILTER_CANDIDATE) != 0) {
+                PathSet.Node node = paths.node(state & ~FILTER_CANDIDATE);
+                if (FilterCompiler.predicate((FilterSelector) node.selector).test(value, null)) {
+                    finish(node, node.position, value, true);
+                }
+            } else {
+                PathSet.Node node = paths.node(state);
+                finish(node, node.isScan() ? node.position - 1 : node.position, value, false);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the rest of every path through the node on a materialized value.
+     */
+    private void finish(PathSet.Node node, int from, JsonNode value, boolean emitTerminals) {
+        for (int p : node.paths) {
+            Path path = paths.path(p);
+            if (from < path.size()) {
+                TreeEvaluator.evaluate(path, from, value, null, emitters[p]);
+            } else if (emitTerminals) {
+                emit(p, value);
+            }
+        }
+    }
+
+    private void push(boolean array, int[] states) throws IOException {
+        boolean selectable = false;
+        int maxIndex = array ? -1 : NO_LIMIT;
+        int pendingProperties = 0;
+        for (int state : states) {
+            PathSet.Node node = paths.node(state);
+            if (node.isScan()) {
+                selectable = true;
+                maxIndex = NO_LIMIT;
+                pendingProperties = -1;
+            }
+            for (int child : node.children) {
+                Selector selector = paths.node(child).selector;
+                switch (selector.type()) {
+                    case PROPERTY:
+                        selectable |= !array;
+                        pendingProperties += pendingProperties < 0 ? 0 : ((PropertySelector) selector).count();
+                        break;
+                    case INDEX:
+                        if (array) {
+                            selectable = true;
+                            maxIndex = Math.max(maxIndex, ((IndexSelector) selector).maxIndex());
+                        }
+                        break;
+                    case SLICE:
+                        if (array) {
+                            selectable = true;
+                            int upperBound = ((SliceSelector) selector).upperBound();
+                            maxIndex = upperBound < 0 ? NO_LIMIT : Math.max(maxIndex, upperBound - 1);
+                        }
+                        break;
+                    case WILDCARD:
+                    case FILTER:
+                        selectable = true;
+                        maxIndex = NO_LIMIT;
+                        pendingProperties = -1;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (!selectable) {
+            skip();
+            return;
+        }
+        if (depth == frames.length) {
+            Frame[] grown = new Frame[depth * 2];
+            System.arraycopy(frames, 0, grown, 0, depth);
+            frames = grown;
+        }
+        Frame frame = frames[depth];
+        if (frame == null) {
+            frame = frames[depth] = new Frame();
+        }
+        frame.states = states;
+        frame.index = 0;
+        frame.maxIndex = maxIndex;
+        frame.pendingProperties = array ? -1 : pendingProperties;
+        frame.dead = false;
+        depth++;
+        live++;
+    }
+
+    private void skip() throws IOException {
+        skipped++;
+        parser.skipChildren();
+    }
+
+    private void pop() {
+        Frame frame = frames[--depth];
+        if (!frame.dead) {
+            live--;
+        }
+        frame.states = null;
+    }
+
+    private void kill(Frame frame) {
+        if (!frame.dead) {
+            frame.dead = true;
+            live--;
+        }
+    }
+
+    /**
+     * Collects the states that apply to a member or element of the frame into the scratch buffer. A state is
+     * added once for every way of reaching it, as nested scans and repeated names or indices do, so that each
+     * yields its own match like it does in the {@link TreeEvaluator}.
+     *
+     * @return the number of states
+     */
+    private int childStates(Frame frame, String name, int index) {
+        int count = 0;
+        for (int state : frame.states) {
+            PathSet.Node node = paths.node(state);
+            if (node.isScan()) {
+                count = add(state, count);
+            }
+            for (int child : node.children) {
+                Selector selector = paths.node(child).selector;
+                switch (selector.type()) {
+                    case PROPERTY:
+                        for (int i = name == null ? 0 : ((PropertySelector) selector).occurrences(name); i > 0; i--) {
+                            count = add(child, count);
+                            frame.pendingProperties--;
+                        }
+                        break;
+                    case INDEX:
+                        for (int i = index < 0 ? 0 : ((IndexSelector) selector).occurrences(index); i > 0; i--) {
+                            count = add(child, count);
+                        }
+                        break;
+                    case SLICE:
+                        if (index >= 0 && ((SliceSelector) selector).matches(index)) {
+                            count = add(child, count);
+                        }
+                        break;
+                    case WILDCARD:
+                        count = add(child, count);
+                        break;
+                    case FILTER:
+                        count = add(child | FILTER_CANDIDATE, count);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int add(int state, int count) {
+        if (count == scratch.length) {
+            int[] grown = new int[count * 2];
+            System.arraycopy(scratch, 0, grown, 0, count);
+            scratch = grown;
+        }
+        scratch[count] = state;
+        return count + 1;
+    }
+
+    private void emit(int path, JsonNode match) {
+        matches.add(match);
+        matchedPaths.add(path);
+        if (paths.isDefinite() && !satisfied[path]) {
+            satisfied[path] = true;
+            if (--unsatisfied == 0) {
+                done = true;
+            }
+        }
+    }
+
+    private final class Emitter implements Consumer<JsonNode> {
+        private final int path;
+
+        private Emitter(int path) {
+            this.path = path;
+        }
+
+        @Override
+        public void accept(JsonNode match) {
+            emit(path, match);
+        }
+    }
+
+    private static final class Frame {
+        int[] states;
+        int index;
+        int maxIndex;
+        int pendingProperties;
+        boolean dead;
+    }
+}
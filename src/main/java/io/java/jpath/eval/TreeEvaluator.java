@@ -0,0 +1,183 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.metrics.Instrumentations;
+import io.java.jpath.parser.FilterSelector;
+import io.java.jpath.parser.FunctionSelector;
+import io.java.jpath.parser.IndexSelector;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PropertySelector;
+import io.java.jpath.parser.Selector;
+import io.java.jpath.parser.SliceSelector;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates a compiled {@link Path} against a materialized Jackson tree. A deep scan applies the following
+ * selector to a node before its descendants, so results of overlapping scans such as {@code $..*} are not in
+ * document order.
+ */
+public final class TreeEvaluator {
+
+    private TreeEvaluator() {
+    }
+
+    public static List<JsonNode> evaluate(Path path, JsonNode document) {
+        List<JsonNode> matches = new ArrayList<>();
+        evaluate(path, document, matches::add);
+        return matches;
+    }
+
+    public static void evaluate(Path path, JsonNode document, Consumer<? super JsonNode> sink) {
+        requireNonNull(document);
+        requireNonNull(sink);
+        if (Instrumentations.ENABLED) {
+            instrumented(path, document, sink, Parallelism.sequential());
+            return;
+        }
+        evaluate(path, 0, document, document, sink);
+    }
+
+    /**
+     * Like {@link #evaluate(Path, JsonNode)}, but wildcard, filter and deep scan steps over arrays and objects
+     * with at least {@code threshold} children are split across the pool. Results are in the same order as
+     * sequential evaluation.
+     */
+    public static List<JsonNode> evaluate(Path path, JsonNode document, ForkJoinPool pool, int threshold) {
+        Parallelism parallel = Parallelism.of(pool, threshold);
+        List<JsonNode> matches = new ArrayList<>();
+        if (Instrumentations.ENABLED) {
+            instrumented(path, requireNonNull(document), matches::add, parallel);
+            return matches;
+        }
+        evaluate(path, 0, requireNonNull(document), document, matches::add, parallel);
+        return matches;
+    }
+
+    private static void instrumented(Path path, JsonNode document, Consumer<? super JsonNode> sink, Parallelism parallel) {
+        long start = System.nanoTime();
+        long[] matches = new long[1];
+        evaluate(path, 0, document, document, match -> {
+            matches[0]++;
+            sink.accept(match);
+        }, parallel);
+        Instrumentations.INSTALLED.evaluated(path.source(), parallel.visited.sum(), parallel.skipped.sum(), matches[0],
+                System.nanoTime() - start);
+    }
+
+    static List<JsonNode> select(Path path, JsonNode node, JsonNode root) {
+        List<JsonNode> matches = new ArrayList<>();
+        evaluate(path, 0, node, root, matches::add);
+        return matches;
+    }
+
+    /**
+     * Applies the selectors of the path starting at {@code from} to the node.
+     *
+     * @param root the document root for {@code $} paths in filters, may be null if the path has none
+     */
+    static void evaluate(Path path, int from, JsonNode node, JsonNode root, Consumer<? super JsonNode> sink) {
+        evaluate(path, from, node, root, sink, null);
+    }
+
+    /**
+     * @param parallel splits wide steps across a pool, null to evaluate sequentially
+     */
+    static void evaluate(Path path, int from, JsonNode node, JsonNode root, Consumer<? super JsonNode> sink,
+                         Parallelism parallel) {
+        if (Instrumentations.ENABLED && parallel != null) {
+            parallel.visited.increment();
+        }
+        if (from == path.size()) {
+            sink.accept(node);
+            return;
+        }
+        Selector selector = path.selector(from);
+        int next = from + 1;
+        switch (selector.type()) {
+            case PROPERTY:
+                if (node.isObject()) {
+                    PropertySelector property = (PropertySelector) selector;
+                    for (int i = 0; i < property.count(); i++) {
+                        JsonNode child = node.get(property.name(i));
+                        if (child != null) {
+                            evaluate(path, next, child, root, sink, parallel);
+                        }
+                    }
+                }
+                break;
+            case INDEX:
+                if (node.isArray()) {
+                    IndexSelector index = (IndexSelector) selector;
+                    for (int i = 0; i < index.count(); i++) {
+                        int resolved = index.resolve(i, node.size());
+                        if (resolved >= 0 && resolved < node.size()) {
+                            evaluate(path, next, node.get(resolved), root, sink, parallel);
+                        }
+                    }
+                }
+                break;
+            case SLICE:
+                if (node.isArray()) {
+                    SliceSelector slice = (SliceSelector) selector;
+                    int to = slice.to(node.size());
+                    int step = slice.step();
+                    for (int i = slice.from(node.size()); step > 0 ? i < to : i > to; i += step) {
+                        evaluate(path, next, node.get(i), root, sink, parallel);
+                    }
+                }
+                break;
+            case WILDCARD:
+                if (parallel != null && parallel.splits(node)) {
+                    parallel.each(path, next, node, root, null, sink);
+                    break;
+                }
+                for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+                    evaluate(path, next, children.next(), root, sink, parallel);
+                }
+                break;
+            case SCAN:
+                scan(path, next, node, root, sink, parallel);
+                break;
+            case FILTER:
+                FilterPredicate predicate = FilterCompiler.predicate((FilterSelector) selector);
+                if (parallel != null && parallel.splits(node)) {
+                    parallel.each(path, next, node, root, predicate, sink);
+                    break;
+                }
+                for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+                    JsonNode child = children.next();
+                    if (predicate.test(child, root)) {
+                        evaluate(path, next, child, root, sink, parallel);
+                    } else if (Instrumentations.ENABLED && parallel != null) {
+                        parallel.skipped.increment();
+                    }
+                }
+                break;
+            case FUNCTION:
+                JsonNode result = Functions.apply((FunctionSelector) selector, node);
+                if (result != null) {
+                    evaluate(path, next, result, root, sink, parallel);
+                }
+                break;
+        }
+    }
+
+    static void scan(Path path, int next, JsonNode node, JsonNode root, Consumer<? super JsonNode> sink,
+                     Parallelism parallel) {
+        evaluate(path, next, node, root, sink, parallel);
+        if (parallel != null && parallel.splits(node)) {
+            parallel.scan(path, next, node, root, sink);
+            return;
+        }
+        for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+            scan(path, next, children.next(), root, sink, parallel);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.java.jpath.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A UTF-8 encoded path in a {@code byte[]} or {@link ByteBuffer}, heap or direct, lexed without decoding.
+ * <p>
+ * {@link #charAt(int)} returns the raw byte as a char. Every character the path grammar reacts to is ASCII and
+ * UTF-8 never uses ASCII bytes inside a multi-byte sequence, so lexing the bytes yields the same tokens as
+ * lexing the decoded string, with offsets in bytes. Token text is only decoded by {@link #decode(int, int)}
+ * and {@link #toString()}; {@link #regionEquals(int, int, CharSequence)} compares without decoding.
+ * The underlying bytes are not copied and must not change while in use.
+ */
+public final class ByteSource implements CharSequence {
+
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private ByteSource(byte[] array, ByteBuffer buffer, int offset, int length) {
+        this.array = array;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static ByteSource of(byte[] bytes) {
+        return new ByteSource(requireNonNull(bytes), null, 0, bytes.length);
+    }
+
+    public static ByteSource of(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + bytes.length);
+        }
+        return new ByteSource(bytes, null, offset, length);
+    }
+
+    /**
+     * A view of the bytes between the position and the limit of the buffer. The buffer position is not changed.
+     */
+    public static ByteSource of(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new ByteSource(buffer.array(), null, buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return new ByteSource(null, buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * The offset of this view in the underlying array, or in the buffer for direct and read-only buffers.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return array != null ? array[offset + index] : buffer.get(offset + index);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (byteAt(index) & 0xff);
+    }
+
+    @Override
+    public ByteSource subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new ByteSource(array, buffer, offset + start, end - start);
+    }
+
+    /**
+     * Like {@link String#trim()}, strips bytes up to and including space from both ends.
+     */
+    public ByteSource trim() {
+        int start = 0;
+        int end = length;
+        while (start < end && (byteAt(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (byteAt(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        return start == 0 && end == length ? this : subSequence(start, end);
+    }
+
+    public String decode(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        if (array != null) {
+            return new String(array, offset + start, end - start, StandardCharsets.UTF_8);
+        }
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(offset + end).position(offset + start);
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+
+    /**
+     * True if the bytes in {@code [start, end)} are the UTF-8 encoding of the characters.
+     */
+    public boolean regionEquals(int start, int end, CharSequence chars) {
+        int pos = start;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                if (pos >= end || byteAt(pos++) != c) {
+                    return false;
+                }
+                continue;
+            }
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < chars.length() && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, chars.charAt(++i));
+            }
+            int count = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (pos + count > end) {
+                return false;
+            }
+            int lead = count == 2 ? 0xc0 : count == 3 ? 0xe0 : 0xf0;
+            if (byteAt(pos++) != (byte) (lead | (codePoint >> (6 * (count - 1))))) {
+                return false;
+            }
+            for (int shift = 6 * (count - 2); shift >= 0; shift -= 6) {
+                if (byteAt(pos++) != (byte) (0x80 | ((codePoint >> shift) & 0x3f))) {
+                    return false;
+                }
+            }
+        }
+        return pos == end;
+    }
+
+    @Override
+    public String toString() {
+        return decode(0, length);
+    }
+}
@@ -0,0 +1,55 @@
+package io.java.jpath.lexer;
+
+/**
+ * ASCII character classes as bit flags in a lookup table. Characters outside ASCII fall back to
+ * {@link Character}, and belong to no class of the path syntax.
+ */
+final class CharClass {
+
+    static final int WHITESPACE = 1;
+    static final int DIGIT = 1 << 1;
+    /**
+     * Any of {@code =<>!~}.
+     */
+    static final int OPERATOR = 1 << 2;
+    /**
+     * An operator, {@code " .,()["} or {@link Lexer#EOF}.
+     */
+    static final int IDENTIFIER_TERMINATOR = 1 << 3;
+
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        for (char c = 0; c < CLASSES.length; c++) {
+            if (Character.isWhitespace(c)) {
+                add(WHITESPACE, c);
+            }
+        }
+        add(DIGIT, "0123456789");
+        add(OPERATOR, "=<>!~");
+        add(IDENTIFIER_TERMINATOR, "=<>!~ .,()[");
+        add(IDENTIFIER_TERMINATOR, Lexer.EOF);
+    }
+
+    private CharClass() {
+    }
+
+    static boolean is(char c, int charClass) {
+        return c < 128 ? (CLASSES[c] & charClass) != 0 : isOther(c, charClass);
+    }
+
+    private static boolean isOther(char c, int charClass) {
+        return (charClass & WHITESPACE) != 0 && Character.isWhitespace(c)
+                || (charClass & DIGIT) != 0 && Character.isDigit(c);
+    }
+
+    private static void add(int charClass, String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            add(charClass, chars.charAt(i));
+        }
+    }
+
+    private static void add(int charClass, char c) {
+        CLASSES[c] |= charClass;
+    }
+}
@@ -0,0 +1,168 @@
+package io.java.jpath.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps the tokens of a path that is being edited and re-lexes only the top level selectors an edit touches.
+ * <p>
+ * Lexing restarts at the last top level selector that starts before the edit and runs until it reaches the
+ * start of a selector of the previous lexing after the edit. From there the previous tokens are reused with
+ * their offsets shifted by the length change. Offsets are those of {@link PathLexer#lex(String, java.util.function.Consumer)},
+ * relative to the path without leading whitespace; edit offsets are relative to {@link #text()}.
+ * Not thread safe.
+ */
+public final class IncrementalLexer {
+
+    private String text;
+    private int leading;
+    private List<LexToken> tokens = Collections.emptyList();
+    private int[] stepStarts = new int[0];
+    private int[] stepTokens = new int[0];
+    private int steps;
+    private int relexed;
+
+    private IncrementalLexer(String text) {
+        this.text = requireNonNull(text);
+        lex(text, 0, -1, 0);
+    }
+
+    public static IncrementalLexer of(String path) {
+        return new IncrementalLexer(path);
+    }
+
+    /**
+     * The path as edited, including surrounding whitespace.
+     */
+    public String text() {
+        return text;
+    }
+
+    public List<LexToken> tokens() {
+        return tokens;
+    }
+
+    /**
+     * The number of tokens lexed by the last edit, the others were reused.
+     */
+    public int relexedTokens() {
+        return relexed;
+    }
+
+    /**
+     * Replaces {@code removed} characters at {@code offset} with the inserted text and re-lexes.
+     * If the new path does not lex, the edit is kept, the exception propagates and the next edit lexes the
+     * whole path.
+     *
+     * @return the tokens of the edited path
+     */
+    public List<LexToken> edit(int offset, int removed, String inserted) {
+        requireNonNull(inserted);
+        if (offset < 0 || removed < 0 || offset + removed > text.length()) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", removed: " + removed + ", length: " + text.length());
+        }
+        String updated = new StringBuilder(text.length() + inserted.length() - removed)
+                .append(text, 0, offset)
+                .append(inserted)
+                .append(text, offset + removed, text.length())
+                .toString();
+        int previousLeading = leading;
+        text = updated;
+        if (steps == 0 || leading(updated) != previousLeading || offset < previousLeading) {
+            lex(updated, 0, -1, 0);
+        } else {
+            lex(updated, offset - previousLeading, offset - previousLeading + removed, inserted.length() - removed);
+        }
+        return tokens;
+    }
+
+    /**
+     * @param editStart start of the edit in the trimmed path
+     * @param editEnd   end of the removed text in the previous trimmed path, -1 to lex everything
+     * @param delta     length change of the edit
+     */
+    private void lex(String updated, int editStart, int editEnd, int delta) {
+        List<LexToken> previous = tokens;
+        int[] previousStarts = stepStarts;
+        int[] previousTokens = stepTokens;
+        int previousSteps = steps;
+
+        int restart = 0;
+        if (editEnd != -1) {
+            while (restart + 1 < previousSteps && previousStarts[restart + 1] < editStart) {
+                restart++;
+            }
+        }
+        List<LexToken> lexed = new ArrayList<>(previous.subList(0, editEnd == -1 ? 0 : previousTokens[restart]));
+        int[] starts = Arrays.copyOf(previousStarts, Math.max(8, previousSteps + 8));
+        int[] firstTokens = Arrays.copyOf(previousTokens, starts.length);
+        int count = editEnd == -1 ? 0 : restart;
+        int reused = editEnd == -1 ? previousSteps : restart + 1;
+
+        steps = 0;
+        tokens = Collections.emptyList();
+        leading = leading(updated);
+        Lexer l = Lexer.of(updated, lexed::add);
+        if (editEnd != -1) {
+            l.seek(previousStarts[restart]);
+        }
+        int newEditEnd = editStart + Math.max(editEnd - editStart + delta, 0);
+        while (true) {
+            int pos = l.pos();
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                firstTokens = Arrays.copyOf(firstTokens, count * 2);
+            }
+            if (editEnd != -1 && pos >= newEditEnd && pos - delta >= editEnd) {
+                while (reused < previousSteps && previousStarts[reused] < pos - delta) {
+                    reused++;
+                }
+                if (reused < previousSteps && previousStarts[reused] == pos - delta) {
+                    relexed = lexed.size() - previousTokens[restart];
+                    int shift = lexed.size() - previousTokens[reused];
+                    for (int s = reused; s < previousSteps; s++) {
+                        if (count == starts.length) {
+                            starts = Arrays.copyOf(starts, count * 2);
+                            firstTokens = Arrays.copyOf(firstTokens, count * 2);
+                        }
+                        starts[count] = previousStarts[s] + delta;
+                        firstTokens[count++] = previousTokens[s] + shift;
+                    }
+                    for (LexToken token : previous.subList(previousTokens[reused], previous.size())) {
+                        lexed.add(delta == 0 ? token : LexToken.of(token.type(), token.getToken(),
+                                token.getStartIndex() + delta, token.getEndIndex() + delta));
+                    }
+                    finish(lexed, starts, firstTokens, count);
+                    return;
+                }
+            }
+            starts[count] = pos;
+            firstTokens[count++] = lexed.size();
+            if (!PathLexer.step(l)) {
+                break;
+            }
+        }
+        l.emit(TokenType.EOP, true);
+        relexed = lexed.size() - (editEnd == -1 ? 0 : previousTokens[restart]);
+        finish(lexed, starts, firstTokens, count);
+    }
+
+    private void finish(List<LexToken> lexed, int[] starts, int[] firstTokens, int count) {
+        this.tokens = Collections.unmodifiableList(lexed);
+        this.stepStarts = starts;
+        this.stepTokens = firstTokens;
+        this.steps = count;
+    }
+
+    private static int leading(String text) {
+        int i = 0;
+        while (i < text.length() && text.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,225 @@
+package io.java.jpath.lexer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable JSON value, built by the {@link Lexer} from a JSON literal. Numbers are doubles and equal
+ * when their values are, as in filter comparisons. Arrays of {@value #HASHED_SIZE} or more elements also
+ * hold their elements in a hash set, so that {@link #contains} is a lookup.
+ */
+public final class JsonValue {
+
+    public enum Kind {
+        NULL, BOOLEAN, NUMBER, STRING, ARRAY, OBJECT
+    }
+
+    static final int HASHED_SIZE = 8;
+
+    public static final JsonValue NULL = new JsonValue(Kind.NULL, null, 0, null, null);
+    public static final JsonValue TRUE = new JsonValue(Kind.BOOLEAN, null, 1, null, null);
+    public static final JsonValue FALSE = new JsonValue(Kind.BOOLEAN, null, 0, null, null);
+
+    private final Kind kind;
+    private final String string;
+    private final double number;
+    private final List<JsonValue> elements;
+    private final Map<String, JsonValue> members;
+    private final Set<Object> keys;
+
+    private JsonValue(Kind kind, String string, double number, List<JsonValue> elements, Map<String, JsonValue> members) {
+        this.kind = kind;
+        this.string = string;
+        this.number = number;
+        this.elements = elements;
+        this.members = members;
+        this.keys = elements != null && elements.size() >= HASHED_SIZE ? keys(elements) : null;
+    }
+
+    public static JsonValue string(String value) {
+        return new JsonValue(Kind.STRING, requireNonNull(value), 0, null, null);
+    }
+
+    public static JsonValue number(double value) {
+        return new JsonValue(Kind.NUMBER, null, value, null, null);
+    }
+
+    public static JsonValue bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public static JsonValue array(List<JsonValue> elements) {
+        return new JsonValue(Kind.ARRAY, null, 0, Collections.unmodifiableList(new ArrayList<>(elements)), null);
+    }
+
+    public static JsonValue object(Map<String, JsonValue> members) {
+        return new JsonValue(Kind.OBJECT, null, 0, null, Collections.unmodifiableMap(new LinkedHashMap<>(members)));
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public boolean is(Kind other) {
+        return kind == other;
+    }
+
+    public String stringValue() {
+        return string;
+    }
+
+    public double numberValue() {
+        return number;
+    }
+
+    public boolean booleanValue() {
+        return number != 0;
+    }
+
+    /**
+     * The elements of an array, else empty.
+     */
+    public List<JsonValue> elements() {
+        return elements == null ? Collections.emptyList() : elements;
+    }
+
+    /**
+     * The members of an object in literal order, else empty. A repeated name keeps its last value.
+     */
+    public Map<String, JsonValue> members() {
+        return members == null ? Collections.emptyMap() : members;
+    }
+
+    /**
+     * True if this is an array with an element equal to the value.
+     */
+    public boolean contains(JsonValue value) {
+        if (keys != null) {
+            return keys.contains(key(value));
+        }
+        return elements != null && elements.contains(value);
+    }
+
+    /**
+     * Like {@link #contains(JsonValue)} for a string, without wrapping it.
+     */
+    public boolean containsString(String value) {
+        if (keys != null) {
+            return keys.contains(value);
+        }
+        for (JsonValue element : elements()) {
+            if (element.kind == Kind.STRING && element.string.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Like {@link #contains(JsonValue)} for a number, without wrapping it.
+     */
+    public boolean containsNumber(double value) {
+        if (keys != null) {
+            return keys.contains(normalize(value));
+        }
+        for (JsonValue element : elements()) {
+            if (element.kind == Kind.NUMBER && element.number == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Object> keys(List<JsonValue> elements) {
+        Set<Object> keys = new HashSet<>(elements.size() * 2);
+        for (JsonValue element : elements) {
+            keys.add(key(element));
+        }
+        return keys;
+    }
+
+    /**
+     * Strings and numbers are keyed on their Java value, so that they can be looked up without a JsonValue.
+     */
+    private static Object key(JsonValue value) {
+        switch (value.kind) {
+            case STRING:
+                return value.string;
+            case NUMBER:
+                return normalize(value.number);
+            default:
+                return value;
+        }
+    }
+
+    private static Double normalize(double number) {
+        // -0.0 == 0.0, but their Doubles are not equal
+        return number == 0 ? 0.0 : number;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JsonValue that = (JsonValue) o;
+        if (kind != that.kind) {
+            return false;
+        }
+        switch (kind) {
+            case STRING:
+                return string.equals(that.string);
+            case ARRAY:
+                return elements.equals(that.elements);
+            case OBJECT:
+                return members.equals(that.members);
+            default:
+                return number == that.number;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        switch (kind) {
+            case STRING:
+                return string.hashCode();
+            case ARRAY:
+                return elements.hashCode();
+            case OBJECT:
+                return members.hashCode();
+            default:
+                return 31 * kind.hashCode() + normalize(number).hashCode();
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case NULL:
+                return "null";
+            case BOOLEAN:
+                return Boolean.toString(booleanValue());
+            case NUMBER:
+                return number == (long) number ? Long.toString((long) number) : Double.toString(number);
+            case STRING:
+                return '\'' + string + '\'';
+            case ARRAY:
+                return elements.toString();
+            default:
+                StringBuilder sb = new StringBuilder("{");
+                for (Map.Entry<String, JsonValue> member : members.entrySet()) {
+                    if (sb.length() > 1) {
+                        sb.append(", ");
+                    }
+                    sb.append('\'').append(member.getKey()).append("': ").append(member.getValue());
+                }
+                return sb.append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.java.jpath.lexer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A lex error recorded by a recovering {@link Lexer}, see {@link PathLexer#validate(String)}.
+ * The position is relative to the trimmed source.
+ */
+public final class LexDiagnostic {
+    private final int position;
+    private final String expected;
+    private final String found;
+
+    private LexDiagnostic(int position, String expected, String found) {
+        this.position = position;
+        this.expected = requireNonNull(expected);
+        this.found = requireNonNull(found);
+    }
+
+    public static LexDiagnostic of(int position, String expected, String found) {
+        return new LexDiagnostic(position, expected, found);
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public String expected() {
+        return expected;
+    }
+
+    /**
+     * The character at the position, or {@code EOP} at the end of the path.
+     */
+    public String found() {
+        return found;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LexDiagnostic that = (LexDiagnostic) o;
+        return position == that.position && expected.equals(that.expected) && found.equals(that.found);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * position + expected.hashCode()) + found.hashCode();
+    }
+
+    /**
+     * The same message a {@link LexException} carries.
+     */
+    @Override
+    public String toString() {
+        return expected + " at position: " + position + " but found: " + found;
+    }
+}
@@ -5,7 +5,7 @@ public class LexException extends RuntimeException {
         super(message + " at position: " + l.pos() + " but found: " + found(l));
     }
 
-    private static String found(Lexer l) {
+    static String found(Lexer l) {
         return l.current() == Lexer.EOF ? "EOP" : Character.toString(l.current());
     }
 
@@ -0,0 +1,14 @@
+package io.java.jpath.lexer;
+
+/**
+ * Unwinds a recovering {@link Lexer} to the selector being lexed once the error is recorded. A single
+ * shared instance without a stack trace, so recovering from an error costs no more than the diagnostic.
+ */
+final class LexRecovery extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    static final LexRecovery INSTANCE = new LexRecovery();
+
+    private LexRecovery() {
+        super(null, null, false, false);
+    }
+}
@@ -1,25 +1,36 @@
 package io.java.jpath.lexer;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
-import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
 public class Lexer {
 
     public static final char EOF = Character.MIN_VALUE;
 
-    private final Consumer<LexToken> sink;
-    private final String source;
+    private final TokenSink sink;
+    private final Consumer<LexDiagnostic> diagnostics;
+    private final CharSequence source;
     private final int length;
     private int start;
     private int pos;
+    private int tokens;
+    private boolean buildJson;
+    private JsonValue json;
 
-    private Lexer(String str, Consumer<LexToken> sink) {
+    private Lexer(CharSequence str, TokenSink sink, Consumer<LexDiagnostic> diagnostics) {
         this.sink = requireNonNull(sink);
-        this.source = requireNonNull(str).trim();
-        if (source.isEmpty()) {
-            fail("Lexer source must not be empty");
+        this.diagnostics = diagnostics;
+        this.source = trim(requireNonNull(str));
+        if (source.length() == 0) {
+            if (diagnostics == null) {
+                fail("Lexer source must not be empty");
+            }
+            diagnostics.accept(LexDiagnostic.of(0, "Lexer source must not be empty", "EOP"));
         }
         this.length = source.length();
         this.start = 0;
@@ -37,17 +48,76 @@ public class Lexer {
     }
 
     public static Lexer of(String source, Consumer<LexToken> sink) {
-        return new Lexer(source, sink);
+        requireNonNull(sink);
+        String trimmed = requireNonNull(source).trim();
+        return new Lexer(trimmed, (type, start, end) -> sink.accept(LexToken.of(type, trimmed.substring(start, end), start, end)), null);
+    }
+
+    public static Lexer of(String source, TokenSink sink) {
+        return new Lexer(source, sink, null);
+    }
+
+    /**
+     * A recovering lexer: errors are recorded into the diagnostics instead of thrown, and
+     * {@link PathLexer#lex(Lexer)} resumes after each of them. Tokens emitted around an error are partial.
+     */
+    public static Lexer of(CharSequence source, TokenSink sink, Consumer<LexDiagnostic> diagnostics) {
+        return new Lexer(source, sink, requireNonNull(diagnostics));
+    }
+
+    /**
+     * Lexes UTF-8 bytes, token offsets are byte offsets into the trimmed source.
+     */
+    public static Lexer of(ByteSource source, TokenSink sink) {
+        return new Lexer(source, sink, null);
+    }
+
+    /**
+     * The trimmed source, token offsets are relative to it. A {@link String} or a {@link ByteSource}.
+     */
+    public CharSequence source() {
+        return this.source;
+    }
+
+    public boolean isRecovering() {
+        return diagnostics != null;
+    }
+
+    /**
+     * The number of tokens emitted so far.
+     */
+    int tokenCount() {
+        return tokens;
     }
 
     public int pos() {
         return this.pos;
     }
 
+    /**
+     * Moves to a position where a new token starts, such as a token boundary of an earlier lexing of the source.
+     */
+    Lexer seek(int position) {
+        if (position < 0 || position > length) {
+            throw new IndexOutOfBoundsException("position: " + position + ", length: " + length);
+        }
+        this.start = position;
+        this.pos = position;
+        return this;
+    }
+
     public char current() {
         return pos >= length ? EOF : source.charAt(pos);
     }
 
+    /**
+     * The character {@code offset} positions after the current one, {@link #EOF} past the end.
+     */
+    char peek(int offset) {
+        int p = pos + offset;
+        return p >= length ? EOF : source.charAt(p);
+    }
+
     public Lexer accept() {
         char c = current();
         accept(c);
@@ -58,7 +128,8 @@ public class Lexer {
         if (c == EOF) {
             fail("Unexpected EOF");
         } else if (c == current()) {
-            next();
+            // c is not EOF, so pos is inside the source
+            pos++;
         } else {
             fail("Expected " + c);
         }
@@ -71,12 +142,10 @@ public class Lexer {
     }
 
     public Lexer acceptInteger() {
-        if (!Character.isDigit(current())) {
+        if (!CharClass.is(current(), CharClass.DIGIT)) {
             fail("Expected digits");
         }
-        do {
-            accept();
-        } while (Character.isDigit(current()));
+        pos = skip(pos + 1, CharClass.DIGIT);
         return this;
     }
 
@@ -127,9 +196,19 @@ public class Lexer {
     }
 
     public Lexer acceptWhitespace() {
-        while (Character.isWhitespace(current())) {
-            accept();
+        pos = skip(pos, CharClass.WHITESPACE);
+        return this;
+    }
+
+    /**
+     * Accepts up to the next character of the class, or to the end of the source.
+     */
+    Lexer acceptUntil(int charClass) {
+        int p = pos;
+        while (p < length && !CharClass.is(source.charAt(p), charClass)) {
+            p++;
         }
+        pos = p;
         return this;
     }
 
@@ -141,20 +220,107 @@ public class Lexer {
         }
 
         accept(quoteType);
-        while (current() != quoteType) {
-            //TODO: escape
-            accept();
-        }
+        acceptStringBody(quoteType);
         accept(quoteType);
         return this;
     }
 
+    /**
+     * The value of the quoted string from {@code start} to {@code end}, quotes included. The escapes are those
+     * of JSON and {@code \'}; a backslash before any other character is kept. The text between escapes is
+     * decoded through the source, so a {@link ByteSource} yields UTF-8 decoded characters.
+     */
+    public static String unquote(CharSequence source, int start, int end) {
+        int from = start + 1;
+        int to = end - 1;
+        int escape = from;
+        while (escape < to && source.charAt(escape) != '\\') {
+            escape++;
+        }
+        if (escape == to) {
+            return source.subSequence(from, to).toString();
+        }
+        StringBuilder sb = new StringBuilder(to - from);
+        int run = from;
+        for (int i = escape; i < to; i++) {
+            if (source.charAt(i) != '\\' || i + 1 == to) {
+                continue;
+            }
+            append(sb, source, run, i);
+            char escaped = source.charAt(++i);
+            run = i + 1;
+            switch (escaped) {
+                case '\'':
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(escaped);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    int code = i + 4 < to ? hex(source, i + 1) : -1;
+                    if (code == -1) {
+                        sb.append('\\');
+                        run = i;
+                    } else {
+                        sb.append((char) code);
+                        i += 4;
+                        run = i + 1;
+                    }
+                    break;
+                default:
+                    // not an escape, the character is kept after the backslash
+                    sb.append('\\');
+                    run = i;
+                    break;
+            }
+        }
+        append(sb, source, run, to);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, CharSequence source, int start, int end) {
+        if (start == end) {
+            return;
+        }
+        if (source instanceof ByteSource) {
+            sb.append(((ByteSource) source).decode(start, end));
+        } else {
+            sb.append(source, start, end);
+        }
+    }
+
+    private static int hex(CharSequence source, int start) {
+        int code = 0;
+        for (int i = start; i < start + 4; i++) {
+            int digit = Character.digit(source.charAt(i), 16);
+            if (digit == -1) {
+                return -1;
+            }
+            code = code << 4 | digit;
+        }
+        return code;
+    }
+
     public Lexer acceptRegex() {
         accept('/');
-        do {
-            //TODO: escape
-            accept();
-        } while (current() != '/');
+        accept();
+        //TODO: escape
+        acceptUpTo('/');
         accept('/');
 
         if(current() == 'i'){
@@ -164,47 +330,110 @@ public class Lexer {
     }
 
     public Lexer acceptJsonArray() {
+        readJsonArray();
+        return this;
+    }
+
+    public Lexer acceptJsonObject() {
+        readJsonObject();
+        return this;
+    }
+
+    public Lexer acceptJsonValue() {
+        readJsonValue();
+        return this;
+    }
+
+    public Lexer acceptJson() {
+        switch (current()) {
+            case '[':
+                json = readJsonArray();
+                break;
+            case '{':
+                json = readJsonObject();
+                break;
+            default:
+                fail("Expected JSON");
+        }
+        return this;
+    }
+
+    /**
+     * Builds a {@link JsonValue} of every JSON literal accepted from now on, see {@link #lastJsonValue()}.
+     */
+    public Lexer withJsonValues() {
+        this.buildJson = true;
+        return this;
+    }
+
+    /**
+     * The value of the last literal accepted by {@link #acceptJson()}, null unless {@link #withJsonValues()}.
+     */
+    public JsonValue lastJsonValue() {
+        return json;
+    }
+
+    private JsonValue readJsonArray() {
         accept('[');
         acceptWhitespace();
+        List<JsonValue> elements = buildJson ? new ArrayList<>() : null;
         if (current() != ']') {
-            acceptJsonValue();
+            add(elements, readJsonValue());
             acceptWhitespace();
             while (current() == ',') {
                 accept(',');
                 acceptWhitespace();
-                acceptJsonValue();
+                add(elements, readJsonValue());
                 acceptWhitespace();
             }
         }
         accept(']');
-        return this;
+        return buildJson ? JsonValue.array(elements) : null;
     }
 
-    public Lexer acceptJsonObject() {
+    private JsonValue readJsonObject() {
         accept('{');
         acceptWhitespace();
-        while (current() == '\'' || current() == '"') {
+        Map<String, JsonValue> members = buildJson ? new LinkedHashMap<>() : null;
+        if (current() != '}') {
+            readJsonMember(members);
+            while (current() == ',') {
+                accept(',');
+                acceptWhitespace();
+                readJsonMember(members);
+            }
+        }
+        accept('}');
+        return buildJson ? JsonValue.object(members) : null;
+    }
 
-            acceptString();
-            acceptWhitespace();
+    private void readJsonMember(Map<String, JsonValue> members) {
+        int from = pos;
+        acceptString();
+        String name = buildJson ? unquote(source, from, pos) : null;
+        acceptWhitespace();
 
-            accept(':');
+        accept(':');
 
-            acceptWhitespace();
-            acceptJsonValue();
-            acceptWhitespace();
+        acceptWhitespace();
+        JsonValue value = readJsonValue();
+        acceptWhitespace();
+        if (buildJson) {
+            members.put(name, value);
         }
-        accept('}');
-        return this;
     }
 
-    public Lexer acceptJsonValue() {
+    private JsonValue readJsonValue() {
+        int from = pos;
+        JsonValue value = null;
         switch (current()) {
 
             case '\'':
             case '"':
                 acceptString();
-                acceptWhitespace();
+                if (buildJson) {
+                    value = JsonValue.string(unquote(source, from, pos));
+                }
                 break;
             case '0':
             case '1':
@@ -223,48 +452,58 @@ public class Lexer {
                     acceptWhitespace();
                 }
                 acceptNumber();
-                acceptWhitespace();
+                if (buildJson) {
+                    value = JsonValue.number(number(from));
+                }
                 break;
             case 't':
             case 'f':
                 acceptBoolean();
-                acceptWhitespace();
+                value = JsonValue.bool(source.charAt(from) == 't');
                 break;
             case 'n':
                 acceptNull();
-                acceptWhitespace();
+                value = JsonValue.NULL;
                 break;
             case '[':
-                acceptJsonArray();
-                acceptWhitespace();
+                value = readJsonArray();
                 break;
             case '{':
-                acceptJsonObject();
-                acceptWhitespace();
+                value = readJsonObject();
                 break;
             default:
-                fail("");
+                fail("Expected JSON value");
         }
-        return this;
+        acceptWhitespace();
+        return value;
     }
 
-    public Lexer acceptJson() {
-        switch (current()) {
-            case '[':
-                acceptJsonArray();
-                break;
-            case '{':
-                acceptJsonObject();
-                break;
-            default:
-                fail("Expected JSON");
+    private double number(int from) {
+        StringBuilder text = new StringBuilder(pos - from);
+        for (int i = from; i < pos; i++) {
+            char c = source.charAt(i);
+            if (!CharClass.is(c, CharClass.WHITESPACE)) {
+                text.append(c);
+            }
+        }
+        try {
+            return Double.parseDouble(text.toString());
+        } catch (NumberFormatException e) {
+            fail("Expected number");
+            return 0;
+        }
+    }
+
+    private static void add(List<JsonValue> elements, JsonValue element) {
+        if (elements != null) {
+            elements.add(element);
         }
-        return this;
     }
 
     public Lexer emit(TokenType tokenType, boolean skipBlanks) {
-        sink.accept(LexToken.of(tokenType, buffer(), start, pos));
-        flush();
+        sink.token(tokenType, start, pos);
+        tokens++;
+        start = pos;
         return skipBlanks ? skipBlanks() : this;
     }
 
@@ -277,32 +516,59 @@ public class Lexer {
     }
 
     public void fail(String reason) {
-        throw new LexException(reason, this);
-    }
-
-    private String buffer() {
-        return source.substring(start, pos);
-    }
-
-    private String flush() {
-        String buffer = buffer();
-        start = pos;
-        return buffer;
+        if (diagnostics == null) {
+            throw new LexException(reason, this);
+        }
+        diagnostics.accept(LexDiagnostic.of(pos, reason, LexException.found(this)));
+        throw LexRecovery.INSTANCE;
     }
 
     private Lexer skipBlanks() {
         if (start != pos) {
             fail("Can only skip blanks after emmit");
         }
-        while (Character.isWhitespace(current())) {
-            accept();
-        }
+        pos = skip(pos, CharClass.WHITESPACE);
         start = pos;
         return this;
     }
 
-    private char next() {
-        pos = min(++pos, length);
-        return pos < length ? source.charAt(pos) : EOF;
+    /**
+     * Accepts up to the closing quote, a backslash escapes the character after it.
+     */
+    private void acceptStringBody(char quote) {
+        int p = pos;
+        while (p < length) {
+            char c = source.charAt(p);
+            if (c == quote) {
+                break;
+            }
+            p += c == '\\' ? 2 : 1;
+        }
+        pos = Math.min(p, length);
+        if (pos == length) {
+            fail("Unexpected EOF");
+        }
+    }
+
+    private void acceptUpTo(char c) {
+        int p = pos;
+        while (p < length && source.charAt(p) != c) {
+            p++;
+        }
+        pos = p;
+        if (p == length) {
+            fail("Unexpected EOF");
+        }
+    }
+
+    private int skip(int p, int charClass) {
+        while (p < length && CharClass.is(source.charAt(p), charClass)) {
+            p++;
+        }
+        return p;
+    }
+
+    private static CharSequence trim(CharSequence source) {
+        return source instanceof ByteSource ? ((ByteSource) source).trim() : source.toString().trim();
     }
 }
@@ -1,50 +1,181 @@
 package io.java.jpath.lexer;
 
+import io.java.jpath.metrics.Instrumentations;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 public class PathLexer {
 
-    private static final String OPERATOR_CHARS = "=<>!~";
-    private static final String IDENTIFIER_TERMINATOR_CHARS = OPERATOR_CHARS + " .,()[";
-
     public static void lex(String path, Consumer<LexToken> sink) {
         Lexer lexer = Lexer.of(path, sink);
         lex(lexer);
         assert !lexer.hasMoreTokens();
     }
 
+    public static void lex(String path, TokenSink sink) {
+        Lexer lexer = Lexer.of(path, sink);
+        lex(lexer);
+        assert !lexer.hasMoreTokens();
+    }
+
+    public static void lex(String path, TokenCursor cursor) {
+        Lexer lexer = Lexer.of(path, cursor);
+        cursor.bind(lexer.source());
+        lex(lexer);
+        assert !lexer.hasMoreTokens();
+    }
+
+    public static void lex(ByteSource path, TokenSink sink) {
+        Lexer lexer = Lexer.of(path, sink);
+        lex(lexer);
+        assert !lexer.hasMoreTokens();
+    }
+
+    public static void lex(ByteSource path, TokenCursor cursor) {
+        Lexer lexer = Lexer.of(path, cursor);
+        cursor.bind(lexer.source());
+        lex(lexer);
+        assert !lexer.hasMoreTokens();
+    }
+
     public static void lex(Lexer l) {
-        loop:
+        if (!Instrumentations.ENABLED) {
+            lexTopLevel(l);
+            return;
+        }
+        long start = System.nanoTime();
+        lexTopLevel(l);
+        Instrumentations.INSTALLED.lexed(l.source(), l.tokenCount(), System.nanoTime() - start);
+    }
+
+    private static void lexTopLevel(Lexer l) {
+        if (l.isRecovering()) {
+            lexRecovering(l);
+            return;
+        }
+        lexPath(l);
+    }
+
+    /**
+     * Lexes the whole path and reports every error in it, without throwing.
+     *
+     * @return the diagnostics in order of position, empty for a valid path
+     */
+    public static List<LexDiagnostic> validate(String path) {
+        List<LexDiagnostic> diagnostics = new ArrayList<>(0);
+        lex(Lexer.of(path, (type, start, end) -> { }, diagnostics::add));
+        return diagnostics;
+    }
+
+    private static void lexPath(Lexer l) {
+        while (step(l)) {
+            // lex the next top level selector
+        }
+        l.emit(TokenType.EOP, true);
+    }
+
+    /**
+     * Lexes step by step; a failed step is abandoned and lexing resumes at the next {@code ]}, {@code )} or
+     * {@code .} that is not nested inside the failed step.
+     */
+    private static void lexRecovering(Lexer l) {
         while (l.hasMoreTokens()) {
-            switch (l.current()) {
-                case '$':
-                    l.accept('$').emit(TokenType.ROOT_TOKEN);
-                    break;
-                case '@':
-                    l.accept('@').emit(TokenType.CONTEXT_TOKEN);
+            int from = l.pos();
+            try {
+                if (!step(l)) {
+                    l.fail("Expected selector");
+                }
+            } catch (LexRecovery e) {
+                l.seek(resync(l.source(), from, l.pos()));
+            }
+        }
+        l.emit(TokenType.EOP, true);
+    }
+
+    /**
+     * The first position after {@code failed} where a step can start again. Brackets and quotes are counted
+     * from the start of the failed step, so a {@code .} or {@code ]} inside a filter does not end it.
+     */
+    private static int resync(CharSequence source, int from, int failed) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = from; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            switch (c) {
+                case '\'':
+                case '"':
+                    quote = c;
                     break;
                 case '[':
-                    lexSelectorToken(l);
+                case '(':
+                    depth++;
                     break;
-                case '.':
-                    lexPeriodsToken(l);
+                case ']':
+                case ')':
+                    if (--depth <= 0 && i >= failed) {
+                        return i + 1;
+                    }
                     break;
-                case '*':
-                    l.accept('*').emit(TokenType.WILDCARD);
+                case '.':
+                    if (depth <= 0 && i > from && i >= failed) {
+                        return i;
+                    }
                     break;
-                case ' ':
-                case '>':
-                case '<':
-                case '!':
-                case '=':
-                case ',':
-                case ')':
-                    break loop;
                 default:
-                    lexIdentifierToken(l);
+                    break;
             }
         }
-        l.emit(TokenType.EOP, true);
+        return source.length();
+    }
+
+    /**
+     * Lexes one top level selector, such as {@code $}, {@code .name} or a complete {@code [...]}. Lexing
+     * between two steps does not depend on what came before, so a path can be re-lexed from any step boundary.
+     *
+     * @return false at the end of the path, before {@link TokenType#EOP} is emitted
+     */
+    static boolean step(Lexer l) {
+        if (!l.hasMoreTokens()) {
+            return false;
+        }
+        switch (l.current()) {
+            case '$':
+                l.accept('$').emit(TokenType.ROOT_TOKEN);
+                break;
+            case '@':
+                l.accept('@').emit(TokenType.CONTEXT_TOKEN);
+                break;
+            case '[':
+                lexSelectorToken(l);
+                break;
+            case '.':
+                lexPeriodsToken(l);
+                break;
+            case '*':
+                l.accept('*').emit(TokenType.WILDCARD);
+                break;
+            case ' ':
+            case '>':
+            case '<':
+            case '!':
+            case '=':
+            case ',':
+            case ')':
+                return false;
+            default:
+                lexIdentifierToken(l);
+        }
+        return true;
     }
 
     static void lexPeriodsToken(Lexer l) {
@@ -91,10 +222,7 @@ public class PathLexer {
 
     static void lexIdentifierToken(Lexer l) {
         boolean isIdentifier = !isIdentifierTerminator(l);
-        do {
-            l.accept();
-        }
-        while (!isIdentifierTerminator(l));
+        l.accept().acceptUntil(CharClass.IDENTIFIER_TERMINATOR);
 
         if (!isIdentifier) {
             l.fail("Expected identifier");
@@ -134,6 +262,9 @@ public class PathLexer {
                     //
                     lexComparisonOperator(l);
                     lexExpression(l);
+                } else if (wordOperatorLength(l) != 0) {
+                    lexWordOperator(l);
+                    lexExpression(l);
                 }
                 break;
         }
@@ -157,6 +288,30 @@ public class PathLexer {
         l.emit(TokenType.OPERATOR, true);
     }
 
+    /**
+     * Lexes {@code in} or {@code nin}, which must be followed by a blank or a JSON array.
+     */
+    private static void lexWordOperator(Lexer l) {
+        for (int i = wordOperatorLength(l); i > 0; i--) {
+            l.accept();
+        }
+        l.emit(TokenType.OPERATOR, true);
+    }
+
+    private static int wordOperatorLength(Lexer l) {
+        int length = l.current() == 'i' ? 2 : l.current() == 'n' ? 3 : 0;
+        if (length == 0) {
+            return 0;
+        }
+        if ((length == 2 || l.peek(1) == 'i') && l.peek(length - 1) == 'n') {
+            char after = l.peek(length);
+            if (after == '[' || CharClass.is(after, CharClass.WHITESPACE)) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
     private static void lexLogicalOperator(Lexer l) {
         if (l.current() == '&') {
             l.accept('&');
@@ -216,7 +371,7 @@ public class PathLexer {
                 break;
             case '@':
             case '$':
-                lex(l);
+                lexPath(l);
                 break;
             case '/':
                 l.acceptRegex().emit(TokenType.REGEX, true);
@@ -239,14 +394,14 @@ public class PathLexer {
     private static void lexArraySelector(Lexer l) {
         boolean found = false;
         int colonCount = 0;
-        if (l.current() == '-' || Character.isDigit(l.current())) {
+        if (l.current() == '-' || CharClass.is(l.current(), CharClass.DIGIT)) {
             l.acceptNumber().emit(TokenType.NUMBER_LITERAL, true);
             found = true;
         }
         while (l.current() == ':') {
             l.accept(':').emit(TokenType.SLICE_OPERATOR, true);
             colonCount++;
-            if (l.current() == '-' || Character.isDigit(l.current())) {
+            if (l.current() == '-' || CharClass.is(l.current(), CharClass.DIGIT)) {
                 l.acceptNumber().emit(TokenType.NUMBER_LITERAL, true);
             }
             if (colonCount == 2) {
@@ -270,11 +425,10 @@ public class PathLexer {
     }
 
     private static boolean isComparisonOperator(Lexer l) {
-        return OPERATOR_CHARS.indexOf(l.current()) != -1;
+        return CharClass.is(l.current(), CharClass.OPERATOR);
     }
 
     private static boolean isIdentifierTerminator(Lexer l) {
-        return IDENTIFIER_TERMINATOR_CHARS.indexOf(l.current()) != -1
-                || !l.hasMoreTokens();
+        return CharClass.is(l.current(), CharClass.IDENTIFIER_TERMINATOR);
     }
 }
@@ -0,0 +1,175 @@
+package io.java.jpath.lexer;
+
+/**
+ * Rewrites a path into one canonical spelling, so that equivalent paths such as {@code $.a.b},
+ * {@code $['a']["b"]} and {@code $[ 'a' ].b} share a cache key.
+ * <p>
+ * The canonical form has no insignificant whitespace, writes plain names in dot notation and other names in
+ * single quoted brackets, writes wildcards as {@code [*]}, single quotes string literals and puts one space
+ * around comparison and logical operators. Only the tokens are rewritten; a path with input the lexer stops
+ * short of, or with selectors in an order the parser rejects, is returned as is so that parsing it reports
+ * the same error.
+ */
+public final class PathNormalizer {
+
+    private PathNormalizer() {
+    }
+
+    public static String normalize(String path) {
+        TokenBuffer tokens = TokenBuffer.of(path);
+        CharSequence source = tokens.source();
+        if (tokens.end(tokens.size() - 1) != source.length()) {
+            return source.toString();
+        }
+        StringBuilder sb = new StringBuilder(source.length());
+        for (int i = 0; i < tokens.size(); i++) {
+            i = append(sb, tokens, i);
+            if (i == -1) {
+                return source.toString();
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the index of the last token consumed, or -1 if the path is not valid
+     */
+    private static int append(StringBuilder sb, TokenBuffer tokens, int i) {
+        switch (tokens.type(i)) {
+            case PERIOD_TOKEN:
+                return tokens.is(i + 1, TokenType.OPEN_SELECTOR) ? -1 : selector(sb, tokens, i + 1, false);
+            case SCAN_TOKEN:
+                return selector(sb, tokens, i + 1, true);
+            case OPEN_SELECTOR:
+                return selector(sb, tokens, i, false);
+            case STRING_LITERAL:
+                quote(sb, tokens.string(i));
+                return i;
+            case JSON_LITERAL:
+                json(sb, tokens.source(), tokens.start(i), tokens.end(i));
+                return i;
+            case OPERATOR:
+            case AND:
+            case OR:
+                sb.append(' ').append(tokens.source(), tokens.start(i), tokens.end(i)).append(' ');
+                return i;
+            default:
+                sb.append(tokens.source(), tokens.start(i), tokens.end(i));
+                return i;
+        }
+    }
+
+    /**
+     * Appends the selector at {@code i}, which follows a {@code .} or {@code ..}, or is a bracket.
+     *
+     * @return the index of the last token consumed, or -1 if the path is not valid
+     */
+    private static int selector(StringBuilder sb, TokenBuffer tokens, int i, boolean scan) {
+        CharSequence source = tokens.source();
+        if (scan) {
+            sb.append("..");
+        }
+        switch (tokens.type(i)) {
+            case IDENTIFIER:
+                name(sb, tokens.text(i), scan);
+                return i;
+            case WILDCARD:
+                sb.append("[*]");
+                return i;
+            case FUNCTION_NAME:
+                sb.append(scan ? "" : ".").append(source, tokens.start(i), tokens.end(i));
+                return i;
+            case OPEN_SELECTOR:
+                break;
+            default:
+                return -1;
+        }
+        if (tokens.is(i + 1, TokenType.WILDCARD)) {
+            sb.append("[*]");
+            return i + 2;
+        }
+        if (tokens.is(i + 1, TokenType.OBJECT_PROPERTY)) {
+            int close = i + 2;
+            while (tokens.is(close, TokenType.COMMA)) {
+                close += 2;
+            }
+            if (close == i + 2) {
+                name(sb, tokens.string(i + 1), scan);
+                return close;
+            }
+            sb.append('[');
+            for (int name = i + 1; name < close; name += 2) {
+                if (name > i + 1) {
+                    sb.append(',');
+                }
+                quote(sb, tokens.string(name));
+            }
+            sb.append(']');
+            return close;
+        }
+        sb.append('[');
+        return i;
+    }
+
+    private static void name(StringBuilder sb, String name, boolean scan) {
+        if (isPlain(name)) {
+            sb.append(scan ? "" : ".").append(name);
+        } else {
+            sb.append('[');
+            quote(sb, name);
+            sb.append(']');
+        }
+    }
+
+    private static boolean isPlain(String name) {
+        if (name.isEmpty() || isDigit(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_' || isDigit(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Quotes the value in single quotes, or in double quotes if it contains only single quotes. Backslashes
+     * and the quote are escaped.
+     */
+    private static void quote(StringBuilder sb, String value) {
+        char quote = value.indexOf('\'') != -1 && value.indexOf('"') == -1 ? '"' : '\'';
+        sb.append(quote);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == quote || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        sb.append(quote);
+    }
+
+    private static void json(StringBuilder sb, CharSequence source, int start, int end) {
+        char quote = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (quote != 0 && c == '\\' && i + 1 < end) {
+                sb.append(c).append(source.charAt(++i));
+                continue;
+            } else if (quote != 0) {
+                quote = c == quote ? 0 : quote;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (CharClass.is(c, CharClass.WHITESPACE)) {
+                continue;
+            }
+            sb.append(c);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.java.jpath.lexer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable lexed path as parallel primitive arrays over the one source the offsets refer to: about
+ * nine bytes per token, where a {@link LexToken} costs an object and a {@link String} per token.
+ */
+public final class TokenBuffer {
+
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final CharSequence source;
+    private final byte[] types;
+    private final int[] starts;
+    private final int[] ends;
+    private final JsonValue[] json;
+
+    private TokenBuffer(CharSequence source, byte[] types, int[] starts, int[] ends, JsonValue[] json) {
+        this.source = source;
+        this.types = types;
+        this.starts = starts;
+        this.ends = ends;
+        this.json = json;
+    }
+
+    /**
+     * Lexes the path, building the value of each JSON literal in the same pass, see {@link #json(int)}.
+     */
+    public static TokenBuffer of(String path) {
+        Builder builder = new Builder();
+        return builder.lex(Lexer.of(path, builder));
+    }
+
+    public static TokenBuffer of(ByteSource path) {
+        Builder builder = new Builder();
+        return builder.lex(Lexer.of(path, builder));
+    }
+
+    /**
+     * @param source the trimmed path the token offsets refer to
+     */
+    public static TokenBuffer of(CharSequence source, List<LexToken> tokens) {
+        requireNonNull(source);
+        Builder builder = new Builder();
+        for (LexToken token : tokens) {
+            builder.token(token.type(), token.getStartIndex(), token.getEndIndex());
+        }
+        return builder.build(source);
+    }
+
+    /**
+     * The trimmed source, a {@link String} or a {@link ByteSource}.
+     */
+    public CharSequence source() {
+        return source;
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    public TokenType type(int i) {
+        return TYPES[types[i]];
+    }
+
+    public boolean is(int i, TokenType type) {
+        return types[i] == type.ordinal();
+    }
+
+    public int start(int i) {
+        return starts[i];
+    }
+
+    public int end(int i) {
+        return ends[i];
+    }
+
+    /**
+     * Copies, or for byte sources decodes, the token text.
+     */
+    public String text(int i) {
+        return source.subSequence(starts[i], ends[i]).toString();
+    }
+
+    /**
+     * The unquoted, unescaped value of a {@link TokenType#STRING_LITERAL} or {@link TokenType#OBJECT_PROPERTY}
+     * token, see {@link Lexer#unquote(CharSequence, int, int)}.
+     */
+    public String string(int i) {
+        return Lexer.unquote(source, starts[i], ends[i]);
+    }
+
+    /**
+     * The value of a {@link TokenType#JSON_LITERAL} token, null if the buffer was built from a token list.
+     */
+    public JsonValue json(int i) {
+        return json == null ? null : json[i];
+    }
+
+    public LexToken token(int i) {
+        return LexToken.of(type(i), text(i), starts[i], ends[i]);
+    }
+
+    /**
+     * A view that materializes a {@link LexToken} per access.
+     */
+    public List<LexToken> tokens() {
+        return new AbstractList<LexToken>() {
+            @Override
+            public LexToken get(int index) {
+                return token(index);
+            }
+
+            @Override
+            public int size() {
+                return types.length;
+            }
+        };
+    }
+
+    /**
+     * Hands every token to the sink, in order.
+     */
+    public void replay(TokenSink sink) {
+        for (int i = 0; i < types.length; i++) {
+            sink.token(TYPES[types[i]], starts[i], ends[i]);
+        }
+    }
+
+    public void replay(TokenCursor cursor) {
+        cursor.bind(source);
+        replay((TokenSink) cursor);
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBuffer{" +
+                "source='" + source + '\'' +
+                ", size=" + types.length +
+                '}';
+    }
+
+    private static final class Builder implements TokenSink {
+        private byte[] types = new byte[16];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private JsonValue[] json;
+        private int size;
+        private Lexer lexer;
+
+        TokenBuffer lex(Lexer lexer) {
+            this.lexer = lexer.withJsonValues();
+            PathLexer.lex(lexer);
+            return build(lexer.source());
+        }
+
+        @Override
+        public void token(TokenType type, int start, int end) {
+            if (size == types.length) {
+                int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+            }
+            types[size] = (byte) type.ordinal();
+            starts[size] = start;
+            ends[size] = end;
+            if (type == TokenType.JSON_LITERAL && lexer != null) {
+                if (json == null || json.length < types.length) {
+                    json = json == null ? new JsonValue[types.length] : Arrays.copyOf(json, types.length);
+                }
+                json[size] = lexer.lastJsonValue();
+            }
+            size++;
+        }
+
+        TokenBuffer build(CharSequence source) {
+            return new TokenBuffer(source, Arrays.copyOf(types, size), Arrays.copyOf(starts, size), Arrays.copyOf(ends, size),
+                    json == null ? null : Arrays.copyOf(json, size));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.java.jpath.lexer;
+
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A reusable flyweight over the lexed source. The same instance is handed to the consumer for every
+ * token and is only valid until the consumer returns; call {@link #toLexToken()} to keep a token.
+ */
+public final class TokenCursor implements TokenSink, CharSequence {
+
+    private final Consumer<? super TokenCursor> consumer;
+    private CharSequence source = "";
+    private TokenType type;
+    private int start;
+    private int end;
+
+    private TokenCursor(Consumer<? super TokenCursor> consumer) {
+        this.consumer = requireNonNull(consumer);
+    }
+
+    public static TokenCursor of(Consumer<? super TokenCursor> consumer) {
+        return new TokenCursor(consumer);
+    }
+
+    TokenCursor bind(CharSequence source) {
+        this.source = requireNonNull(source);
+        this.type = null;
+        this.start = 0;
+        this.end = 0;
+        return this;
+    }
+
+    @Override
+    public void token(TokenType type, int start, int end) {
+        this.type = type;
+        this.start = start;
+        this.end = end;
+        consumer.accept(this);
+    }
+
+    public boolean is(TokenType other) {
+        return type == other;
+    }
+
+    public TokenType type() {
+        return type;
+    }
+
+    public int getStartIndex() {
+        return start;
+    }
+
+    public int getEndIndex() {
+        return end;
+    }
+
+    /**
+     * The lexed source, a {@link String} or a {@link ByteSource}.
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Copies, or for byte sources decodes, the token text. Prefer {@link #contentEquals(CharSequence)}
+     * or {@link #charAt(int)}.
+     */
+    public String getToken() {
+        return source.subSequence(start, end).toString();
+    }
+
+    public boolean contentEquals(CharSequence other) {
+        if (source instanceof ByteSource) {
+            return ((ByteSource) source).regionEquals(start, end, other);
+        }
+        int length = end - start;
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source.charAt(start + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public LexToken toLexToken() {
+        return LexToken.of(type, getToken(), start, end);
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * For byte sources this is the raw byte, see {@link ByteSource#charAt(int)}.
+     */
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + (end - start));
+        }
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return source.subSequence(start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        return getToken();
+    }
+}
@@ -0,0 +1,11 @@
+package io.java.jpath.lexer;
+
+/**
+ * Receives tokens as primitive offsets into the lexed source, see {@link Lexer#source()}.
+ * Nothing is allocated per token; use {@link TokenCursor} to read token text without copying.
+ */
+@FunctionalInterface
+public interface TokenSink {
+
+    void token(TokenType type, int start, int end);
+}
@@ -0,0 +1,37 @@
+package io.java.jpath.metrics;
+
+/**
+ * Receives timings and counts from lexing, compilation, path caches and evaluation. Every method is a no-op
+ * by default. An implementation is installed once per JVM, see {@link Instrumentations}, and is called
+ * concurrently.
+ */
+public interface Instrumentation {
+
+    Instrumentation NOOP = new Instrumentation() {
+    };
+
+    /**
+     * A path was lexed into {@code tokens} tokens, the end of path included.
+     */
+    default void lexed(CharSequence path, int tokens, long nanos) {
+    }
+
+    /**
+     * A path was parsed from its tokens.
+     */
+    default void compiled(String path, long nanos) {
+    }
+
+    default void cacheAccessed(boolean hit) {
+    }
+
+    /**
+     * A path was evaluated over a document.
+     *
+     * @param visited the nodes the evaluator looked at
+     * @param skipped the nodes it passed over without looking inside them
+     * @param matches the nodes the path selected
+     */
+    default void evaluated(String path, long visited, long skipped, long matches, long nanos) {
+    }
+}
@@ -0,0 +1,31 @@
+package io.java.jpath.metrics;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * The installed {@link Instrumentation}: the class named by the {@code jpath.instrumentation} system property,
+ * else the first one registered with {@link ServiceLoader}, else {@link Instrumentation#NOOP}. It is chosen
+ * once, so that with nothing installed the JIT removes the hooks guarded by {@link #ENABLED}.
+ */
+public final class Instrumentations {
+
+    public static final Instrumentation INSTALLED = load();
+    public static final boolean ENABLED = INSTALLED != Instrumentation.NOOP;
+
+    private Instrumentations() {
+    }
+
+    private static Instrumentation load() {
+        String name = System.getProperty("jpath.instrumentation");
+        if (name != null) {
+            try {
+                return (Instrumentation) Class.forName(name).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("Cannot install instrumentation: " + name, e);
+            }
+        }
+        Iterator<Instrumentation> installed = ServiceLoader.load(Instrumentation.class).iterator();
+        return installed.hasNext() ? installed.next() : Instrumentation.NOOP;
+    }
+}
@@ -0,0 +1,144 @@
+package io.java.jpath.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link Instrumentation} that keeps timing {@link Histogram}s and counts per path. Up to
+ * {@code jpath.metrics.maxPaths} paths, default 1024, are tracked one by one; later paths share the
+ * {@link #OTHER} entry.
+ */
+public class PathMetrics implements Instrumentation {
+
+    public static final String OTHER = "*";
+
+    private final int maxPaths;
+    private final ConcurrentHashMap<String, Stats> paths = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    public PathMetrics() {
+        this(Integer.getInteger("jpath.metrics.maxPaths", 1024));
+    }
+
+    public PathMetrics(int maxPaths) {
+        if (maxPaths < 0) {
+            throw new IllegalArgumentException("maxPaths must not be negative");
+        }
+        this.maxPaths = maxPaths;
+    }
+
+    @Override
+    public void lexed(CharSequence path, int tokens, long nanos) {
+        Stats stats = entry(path.toString());
+        stats.lexNanos.record(nanos);
+        stats.tokens.add(tokens);
+    }
+
+    @Override
+    public void compiled(String path, long nanos) {
+        entry(path).compileNanos.record(nanos);
+    }
+
+    @Override
+    public void cacheAccessed(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    @Override
+    public void evaluated(String path, long visited, long skipped, long matches, long nanos) {
+        Stats stats = entry(path);
+        stats.evaluationNanos.record(nanos);
+        stats.visited.add(visited);
+        stats.skipped.add(skipped);
+        stats.matches.add(matches);
+    }
+
+    /**
+     * The stats of a path, or of {@link #OTHER}; null if nothing was recorded for it.
+     */
+    public Stats stats(String path) {
+        Stats stats = paths.get(path);
+        return stats != null ? stats : paths.get(OTHER);
+    }
+
+    public Map<String, Stats> paths() {
+        return Collections.unmodifiableMap(paths);
+    }
+
+    /**
+     * Hits over accesses of all path caches, NaN before the first access.
+     */
+    public double cacheHitRate() {
+        long hits = cacheHits.sum();
+        return (double) hits / (hits + cacheMisses.sum());
+    }
+
+    private Stats entry(String path) {
+        Stats stats = paths.get(path);
+        if (stats != null) {
+            return stats;
+        }
+        String key = paths.size() < maxPaths ? path : OTHER;
+        return paths.computeIfAbsent(key, k -> new Stats());
+    }
+
+    public static final class Stats {
+        private final Histogram lexNanos = new Histogram();
+        private final Histogram compileNanos = new Histogram();
+        private final Histogram evaluationNanos = new Histogram();
+        private final LongAdder tokens = new LongAdder();
+        private final LongAdder visited = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+
+        public Histogram lexNanos() {
+            return lexNanos;
+        }
+
+        public Histogram compileNanos() {
+            return compileNanos;
+        }
+
+        public Histogram evaluationNanos() {
+            return evaluationNanos;
+        }
+
+        /**
+         * Tokens over all lexings.
+         */
+        public long tokens() {
+            return tokens.sum();
+        }
+
+        /**
+         * Nodes visited over all evaluations, see {@link Instrumentation#evaluated}.
+         */
+        public long visited() {
+            return visited.sum();
+        }
+
+        public long skipped() {
+            return skipped.sum();
+        }
+
+        public long matches() {
+            return matches.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "lexNanos=" + lexNanos +
+                    ", compileNanos=" + compileNanos +
+                    ", evaluationNanos=" + evaluationNanos +
+                    ", tokens=" + tokens +
+                    ", visited=" + visited +
+                    ", skipped=" + skipped +
+                    ", matches=" + matches +
+                    '}';
+        }
+    }
+}
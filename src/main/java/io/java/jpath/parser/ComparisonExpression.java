@@ -0,0 +1,38 @@
+package io.java.jpath.parser;
+
+import static java.util.Objects.requireNonNull;
+
+public final class ComparisonExpression extends Expression {
+
+    private final Operand left;
+    private final Operator operator;
+    private final Operand right;
+
+    private ComparisonExpression(Operand left, Operator operator, Operand right) {
+        super(ExpressionType.COMPARISON);
+        this.left = requireNonNull(left);
+        this.operator = requireNonNull(operator);
+        this.right = requireNonNull(right);
+    }
+
+    public static ComparisonExpression of(Operand left, Operator operator, Operand right) {
+        return new ComparisonExpression(left, operator, right);
+    }
+
+    public Operand left() {
+        return left;
+    }
+
+    public Operator operator() {
+        return operator;
+    }
+
+    public Operand right() {
+        return right;
+    }
+
+    @Override
+    public String toString() {
+        return left + " " + operator.symbol() + " " + right;
+    }
+}
@@ -0,0 +1,21 @@
+package io.java.jpath.parser;
+
+/**
+ * A node in the predicate tree of a {@link FilterSelector}.
+ */
+public abstract class Expression {
+
+    private final ExpressionType type;
+
+    Expression(ExpressionType type) {
+        this.type = type;
+    }
+
+    public ExpressionType type() {
+        return type;
+    }
+
+    public boolean is(ExpressionType other) {
+        return type == other;
+    }
+}
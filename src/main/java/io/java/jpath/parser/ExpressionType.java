@@ -0,0 +1,12 @@
+package io.java.jpath.parser;
+
+public enum ExpressionType {
+    OR,
+    AND,
+    NOT,
+    COMPARISON,
+    /**
+     * A bare operand, true if a path selects something or a literal is truthy.
+     */
+    OPERAND
+}
@@ -0,0 +1,59 @@
+package io.java.jpath.parser;
+
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+public final class FilterSelector extends Selector {
+
+    private final Expression predicate;
+    private volatile Object compiled;
+
+    private FilterSelector(Expression predicate) {
+        super(SelectorType.FILTER);
+        this.predicate = requireNonNull(predicate);
+    }
+
+    public static FilterSelector of(Expression predicate) {
+        return new FilterSelector(predicate);
+    }
+
+    public Expression predicate() {
+        return predicate;
+    }
+
+    /**
+     * The predicate compiled by the evaluator, computed on first use and kept with the selector. Racing
+     * threads may both compile, the compiler must be side effect free.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T compiled(Function<? super Expression, ? extends T> compiler) {
+        Object result = compiled;
+        if (result == null) {
+            compiled = result = requireNonNull(compiler.apply(predicate));
+        }
+        return (T) result;
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "[?(" + predicate + ")]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+}
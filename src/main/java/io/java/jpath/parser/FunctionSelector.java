@@ -0,0 +1,62 @@
+package io.java.jpath.parser;
+
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A trailing function call such as {@code .length()}, applied to the node selected by the preceding path.
+ */
+public final class FunctionSelector extends Selector {
+
+    private final String name;
+    private final List<Operand> arguments;
+
+    private FunctionSelector(String name, List<Operand> arguments) {
+        super(SelectorType.FUNCTION);
+        this.name = requireNonNull(name);
+        this.arguments = Collections.unmodifiableList(arguments);
+    }
+
+    public static FunctionSelector of(String name, List<Operand> arguments) {
+        return new FunctionSelector(name, arguments);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<Operand> arguments() {
+        return arguments;
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(".").append(name).append('(');
+        for (int i = 0; i < arguments.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(arguments.get(i));
+        }
+        return sb.append(')').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+}
@@ -0,0 +1,119 @@
+package io.java.jpath.parser;
+
+import java.util.Arrays;
+
+public final class IndexSelector extends Selector {
+
+    private final int[] indices;
+    private final int maxIndex;
+    private final boolean negative;
+    private final boolean ascending;
+
+    private IndexSelector(int[] indices) {
+        super(SelectorType.INDEX);
+        if (indices.length == 0) {
+            throw new IllegalArgumentException("index selector must have at least one index");
+        }
+        int max = -1;
+        boolean negative = false;
+        boolean ascending = true;
+        for (int i = 0; i < indices.length; i++) {
+            max = Math.max(max, indices[i]);
+            negative |= indices[i] < 0;
+            ascending &= i == 0 || indices[i - 1] < indices[i];
+        }
+        this.indices = indices;
+        this.maxIndex = max;
+        this.negative = negative;
+        this.ascending = ascending;
+    }
+
+    public static IndexSelector of(int... indices) {
+        return new IndexSelector(indices.clone());
+    }
+
+    public int index(int i) {
+        return indices[i];
+    }
+
+    public int count() {
+        return indices.length;
+    }
+
+    /**
+     * True if any index counts from the end of the array, so it can only be resolved once the length is known.
+     */
+    public boolean needsLength() {
+        return negative;
+    }
+
+    /**
+     * The largest non-negative index, or -1. Elements past it can never match.
+     */
+    public int maxIndex() {
+        return maxIndex;
+    }
+
+    /**
+     * True if the indices are non-negative and strictly increasing, so they select elements in document order.
+     */
+    public boolean isAscending() {
+        return ascending && !negative;
+    }
+
+    public boolean matches(int index) {
+        for (int i : indices) {
+            if (i == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The number of indices equal to the index, more than one if the selector repeats it.
+     */
+    public int occurrences(int index) {
+        int occurrences = 0;
+        for (int i : indices) {
+            if (i == index) {
+                occurrences++;
+            }
+        }
+        return occurrences;
+    }
+
+    public int resolve(int i, int length) {
+        int index = indices[i];
+        return index < 0 ? length + index : index;
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return indices.length == 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < indices.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(indices[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(indices, ((IndexSelector) o).indices);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(indices);
+    }
+}
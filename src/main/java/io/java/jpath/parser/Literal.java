@@ -0,0 +1,141 @@
+package io.java.jpath.parser;
+
+import io.java.jpath.lexer.JsonValue;
+import io.java.jpath.lexer.Lexer;
+import io.java.jpath.lexer.TokenType;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A literal with its value resolved once at parse time: strings are unquoted and unescaped, numbers parsed, and regex
+ * literals split into pattern and flags. JSON literals keep their source text and value.
+ */
+public final class Literal extends Operand {
+
+    public static final Literal TRUE = new Literal(LiteralType.BOOLEAN, "true", "true", 0, true, false);
+    public static final Literal FALSE = new Literal(LiteralType.BOOLEAN, "false", "false", 0, false, false);
+    public static final Literal NULL = new Literal(LiteralType.NULL, "null", null, 0, false, false);
+
+    private final LiteralType type;
+    private final String text;
+    private final String string;
+    private final double number;
+    private final boolean bool;
+    private final boolean caseInsensitive;
+    private volatile JsonValue json;
+
+    private Literal(LiteralType type, String text, String string, double number, boolean bool, boolean caseInsensitive) {
+        this.type = requireNonNull(type);
+        this.text = requireNonNull(text);
+        this.string = string;
+        this.number = number;
+        this.bool = bool;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    public static Literal string(String text) {
+        return new Literal(LiteralType.STRING, text, Lexer.unquote(text, 0, text.length()), 0, false, false);
+    }
+
+    public static Literal number(String text) {
+        return new Literal(LiteralType.NUMBER, text, text, Double.parseDouble(text), false, false);
+    }
+
+    public static Literal bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public static Literal json(String text) {
+        return new Literal(LiteralType.JSON, text, text, 0, false, false);
+    }
+
+    /**
+     * @param value the value the lexer built from the text, null to build it on first use
+     */
+    public static Literal json(String text, JsonValue value) {
+        Literal literal = json(text);
+        literal.json = value;
+        return literal;
+    }
+
+    public static Literal regex(String text) {
+        int close = text.lastIndexOf('/');
+        boolean caseInsensitive = text.indexOf('i', close) != -1;
+        return new Literal(LiteralType.REGEX, text, text.substring(1, close), 0, false, caseInsensitive);
+    }
+
+    public LiteralType type() {
+        return type;
+    }
+
+    public boolean is(LiteralType other) {
+        return type == other;
+    }
+
+    /**
+     * The literal as written in the path.
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * The unquoted string, the regex pattern or the JSON source; null for null literals.
+     */
+    public String stringValue() {
+        return string;
+    }
+
+    public double numberValue() {
+        return number;
+    }
+
+    public boolean booleanValue() {
+        return bool;
+    }
+
+    /**
+     * The value of a JSON literal, null for other literals.
+     */
+    public JsonValue jsonValue() {
+        if (type != LiteralType.JSON) {
+            return null;
+        }
+        JsonValue value = json;
+        if (value == null) {
+            Lexer lexer = Lexer.of(text, (type, start, end) -> { }).withJsonValues();
+            lexer.acceptJson().emit(TokenType.JSON_LITERAL);
+            json = value = lexer.lastJsonValue();
+        }
+        return value;
+    }
+
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    @Override
+    public boolean isPath() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Literal literal = (Literal) o;
+        return type == literal.type && text.equals(literal.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, text);
+    }
+}
@@ -0,0 +1,10 @@
+package io.java.jpath.parser;
+
+public enum LiteralType {
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    JSON,
+    REGEX
+}
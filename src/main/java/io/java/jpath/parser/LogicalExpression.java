@@ -0,0 +1,36 @@
+package io.java.jpath.parser;
+
+import static java.util.Objects.requireNonNull;
+
+public final class LogicalExpression extends Expression {
+
+    private final Expression left;
+    private final Expression right;
+
+    private LogicalExpression(ExpressionType type, Expression left, Expression right) {
+        super(type);
+        this.left = requireNonNull(left);
+        this.right = requireNonNull(right);
+    }
+
+    public static LogicalExpression and(Expression left, Expression right) {
+        return new LogicalExpression(ExpressionType.AND, left, right);
+    }
+
+    public static LogicalExpression or(Expression left, Expression right) {
+        return new LogicalExpression(ExpressionType.OR, left, right);
+    }
+
+    public Expression left() {
+        return left;
+    }
+
+    public Expression right() {
+        return right;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + (is(ExpressionType.AND) ? " && " : " || ") + right + ")";
+    }
+}
@@ -0,0 +1,26 @@
+package io.java.jpath.parser;
+
+import static java.util.Objects.requireNonNull;
+
+public final class NotExpression extends Expression {
+
+    private final Expression operand;
+
+    private NotExpression(Expression operand) {
+        super(ExpressionType.NOT);
+        this.operand = requireNonNull(operand);
+    }
+
+    public static NotExpression of(Expression operand) {
+        return new NotExpression(operand);
+    }
+
+    public Expression operand() {
+        return operand;
+    }
+
+    @Override
+    public String toString() {
+        return "!" + operand;
+    }
+}
@@ -0,0 +1,21 @@
+package io.java.jpath.parser;
+
+/**
+ * A comparison or function argument, either a {@link Literal} or an embedded {@link PathOperand}.
+ */
+public abstract class Operand {
+
+    public abstract boolean isPath();
+
+    public boolean isLiteral() {
+        return !isPath();
+    }
+
+    public Literal asLiteral() {
+        return (Literal) this;
+    }
+
+    public Path asPath() {
+        return ((PathOperand) this).path();
+    }
+}
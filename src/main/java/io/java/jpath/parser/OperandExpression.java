@@ -0,0 +1,26 @@
+package io.java.jpath.parser;
+
+import static java.util.Objects.requireNonNull;
+
+public final class OperandExpression extends Expression {
+
+    private final Operand operand;
+
+    private OperandExpression(Operand operand) {
+        super(ExpressionType.OPERAND);
+        this.operand = requireNonNull(operand);
+    }
+
+    public static OperandExpression of(Operand operand) {
+        return new OperandExpression(operand);
+    }
+
+    public Operand operand() {
+        return operand;
+    }
+
+    @Override
+    public String toString() {
+        return operand.toString();
+    }
+}
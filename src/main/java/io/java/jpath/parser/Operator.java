@@ -0,0 +1,38 @@
+package io.java.jpath.parser;
+
+public enum Operator {
+    EQ("=="),
+    NE("!="),
+    LT("<"),
+    LE("<="),
+    GT(">"),
+    GE(">="),
+    MATCHES("=~"),
+    /**
+     * The left value equals an element of the right array.
+     */
+    IN("in"),
+    NIN("nin");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    /**
+     * @return the operator or null if the symbol is not an operator
+     */
+    public static Operator of(String symbol) {
+        for (Operator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package io.java.jpath.parser;
+
+import io.java.jpath.lexer.TokenBuffer;
+
+public class ParseException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ParseException(String message, TokenBuffer tokens, int token) {
+        super(message + " at position: " + tokens.start(token) + " but found: " + found(tokens, token));
+    }
+
+    private static String found(TokenBuffer tokens, int token) {
+        return tokens.start(token) == tokens.end(token) ? tokens.type(token).name() : tokens.text(token);
+    }
+
+    public ParseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,80 @@
+package io.java.jpath.parser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable, compiled path. Absolute paths start at the root {@code $}, relative paths at the
+ * current node {@code @} of a filter.
+ */
+public final class Path {
+
+    private final String source;
+    private final boolean absolute;
+    private final Selector[] selectors;
+    private final List<Selector> selectorList;
+    private final boolean definite;
+
+    private Path(String source, boolean absolute, Selector[] selectors) {
+        this.source = requireNonNull(source);
+        this.absolute = absolute;
+        this.selectors = selectors;
+        this.selectorList = Collections.unmodifiableList(Arrays.asList(selectors));
+        boolean definite = true;
+        for (Selector selector : selectors) {
+            definite &= requireNonNull(selector).isDefinite();
+        }
+        this.definite = definite;
+    }
+
+    public static Path of(String source, boolean absolute, List<Selector> selectors) {
+        return new Path(source, absolute, selectors.toArray(new Selector[0]));
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public boolean isAbsolute() {
+        return absolute;
+    }
+
+    /**
+     * True if the path can select at most one node.
+     */
+    public boolean isDefinite() {
+        return definite;
+    }
+
+    public int size() {
+        return selectors.length;
+    }
+
+    public Selector selector(int i) {
+        return selectors[i];
+    }
+
+    public List<Selector> selectors() {
+        return selectorList;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return source.equals(((Path) o).source);
+    }
+
+    @Override
+    public int hashCode() {
+        return source.hashCode();
+    }
+}
@@ -0,0 +1,30 @@
+package io.java.jpath.parser;
+
+import static java.util.Objects.requireNonNull;
+
+public final class PathOperand extends Operand {
+
+    private final Path path;
+
+    private PathOperand(Path path) {
+        this.path = requireNonNull(path);
+    }
+
+    public static PathOperand of(Path path) {
+        return new PathOperand(path);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public boolean isPath() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
@@ -0,0 +1,313 @@
+package io.java.jpath.parser;
+
+import io.java.jpath.lexer.JsonValue;
+import io.java.jpath.lexer.LexToken;
+import io.java.jpath.lexer.PathLexer;
+import io.java.jpath.lexer.TokenBuffer;
+import io.java.jpath.lexer.TokenType;
+import io.java.jpath.metrics.Instrumentations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.java.jpath.lexer.TokenType.*;
+
+/**
+ * Recursive descent parser over the {@link PathLexer} tokens of a {@link TokenBuffer}. Filter expressions are parsed with the
+ * usual precedence, {@code ||} binds weaker than {@code &&} which binds weaker than {@code !}.
+ */
+public final class PathParser {
+
+    private final TokenBuffer tokens;
+    private int pos;
+
+    private PathParser(TokenBuffer tokens) {
+        this.tokens = tokens;
+    }
+
+    public static Path parse(String path) {
+        return parse(TokenBuffer.of(path));
+    }
+
+    /**
+     * Parses an already lexed path.
+     *
+     * @param source the trimmed path the token offsets refer to
+     */
+    public static Path parse(String source, List<LexToken> tokens) {
+        return parse(TokenBuffer.of(source, tokens));
+    }
+
+    /**
+     * Parses an already lexed path.
+     */
+    public static Path parse(TokenBuffer tokens) {
+        if (!Instrumentations.ENABLED) {
+            return parseTokens(tokens);
+        }
+        long start = System.nanoTime();
+        Path path = parseTokens(tokens);
+        Instrumentations.INSTALLED.compiled(path.source(), System.nanoTime() - start);
+        return path;
+    }
+
+    private static Path parseTokens(TokenBuffer tokens) {
+        if (tokens.size() == 0) {
+            throw new ParseException("Expected tokens");
+        }
+        PathParser parser = new PathParser(tokens);
+        Path path = parser.path();
+        int end = tokens.end(tokens.size() - 1);
+        if (parser.pos != tokens.size() || tokens.start(0) != 0 || end != tokens.source().length()) {
+            throw new ParseException("Unexpected input at position: " + end);
+        }
+        return path;
+    }
+
+    private Path path() {
+        int first = next();
+        if (!tokens.is(first, ROOT_TOKEN) && !tokens.is(first, CONTEXT_TOKEN)) {
+            throw error("Expected $ or @", first);
+        }
+        List<Selector> selectors = new ArrayList<>();
+        while (!is(EOP)) {
+            if (!selectors.isEmpty() && selectors.get(selectors.size() - 1).is(SelectorType.FUNCTION)) {
+                throw error("Expected end of path after function", peek());
+            }
+            int token = next();
+            switch (tokens.type(token)) {
+                case PERIOD_TOKEN:
+                    selectors.add(dotSelector());
+                    break;
+                case SCAN_TOKEN:
+                    selectors.add(ScanSelector.INSTANCE);
+                    if (is(OPEN_SELECTOR)) {
+                        next();
+                        selectors.add(bracketSelector());
+                    } else {
+                        selectors.add(dotSelector());
+                    }
+                    break;
+                case OPEN_SELECTOR:
+                    selectors.add(bracketSelector());
+                    break;
+                default:
+                    throw error("Expected . or [", token);
+            }
+        }
+        int eop = next();
+        String text = tokens.source().subSequence(tokens.start(first), tokens.end(eop)).toString();
+        return Path.of(text, tokens.is(first, ROOT_TOKEN), selectors);
+    }
+
+    private Selector dotSelector() {
+        int token = next();
+        switch (tokens.type(token)) {
+            case IDENTIFIER:
+                return PropertySelector.of(tokens.text(token));
+            case WILDCARD:
+                return WildcardSelector.INSTANCE;
+            case FUNCTION_NAME:
+                return function(token);
+            default:
+                throw error("Expected property, * or function", token);
+        }
+    }
+
+    private Selector function(int name) {
+        expect(OPEN_PARESIS);
+        List<Operand> arguments = new ArrayList<>();
+        if (!is(CLOSE_PARESIS)) {
+            arguments.add(operand());
+            while (is(COMMA)) {
+                next();
+                arguments.add(operand());
+            }
+        }
+        expect(CLOSE_PARESIS);
+        return FunctionSelector.of(tokens.text(name), arguments);
+    }
+
+    private Selector bracketSelector() {
+        Selector selector;
+        int token = peek();
+        switch (tokens.type(token)) {
+            case OBJECT_PROPERTY:
+                selector = propertySelector();
+                break;
+            case WILDCARD:
+                next();
+                selector = WildcardSelector.INSTANCE;
+                break;
+            case FILTER_PREDICATE:
+                next();
+                expect(OPEN_PARESIS);
+                selector = FilterSelector.of(orExpression());
+                expect(CLOSE_PARESIS);
+                break;
+            case NUMBER_LITERAL:
+            case SLICE_OPERATOR:
+                selector = arraySelector();
+                break;
+            default:
+                throw error("Expected selector", token);
+        }
+        expect(CLOSE_SELECTOR);
+        return selector;
+    }
+
+    private Selector propertySelector() {
+        List<String> names = new ArrayList<>();
+        names.add(tokens.string(expect(OBJECT_PROPERTY)));
+        while (is(COMMA)) {
+            next();
+            names.add(tokens.string(expect(OBJECT_PROPERTY)));
+        }
+        return PropertySelector.of(names.toArray(new String[0]));
+    }
+
+    private Selector arraySelector() {
+        Integer first = is(NUMBER_LITERAL) ? integer(next()) : null;
+        if (is(SLICE_OPERATOR)) {
+            next();
+            Integer end = is(NUMBER_LITERAL) ? integer(next()) : null;
+            Integer step = null;
+            if (is(SLICE_OPERATOR)) {
+                int colon = next();
+                step = is(NUMBER_LITERAL) ? integer(next()) : null;
+                if (step != null && step == 0) {
+                    throw error("Slice step must not be 0", colon);
+                }
+            }
+            return SliceSelector.of(first, end, step);
+        }
+        List<Integer> indices = new ArrayList<>();
+        indices.add(first);
+        while (is(COMMA)) {
+            next();
+            indices.add(integer(expect(NUMBER_LITERAL)));
+        }
+        int[] array = new int[indices.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = indices.get(i);
+        }
+        return IndexSelector.of(array);
+    }
+
+    private Expression orExpression() {
+        Expression left = andExpression();
+        while (is(OR)) {
+            next();
+            left = LogicalExpression.or(left, andExpression());
+        }
+        return left;
+    }
+
+    private Expression andExpression() {
+        Expression left = unaryExpression();
+        while (is(AND)) {
+            next();
+            left = LogicalExpression.and(left, unaryExpression());
+        }
+        return left;
+    }
+
+    private Expression unaryExpression() {
+        if (is(NOT)) {
+            next();
+            return NotExpression.of(unaryExpression());
+        }
+        if (is(OPEN_PARESIS)) {
+            next();
+            Expression expression = orExpression();
+            expect(CLOSE_PARESIS);
+            return expression;
+        }
+        Operand left = operand();
+        if (!is(OPERATOR)) {
+            if (left.isLiteral() && left.asLiteral().is(LiteralType.REGEX)) {
+                throw error("Expected =~ before regex", peek());
+            }
+            return OperandExpression.of(left);
+        }
+        int token = next();
+        Operator operator = Operator.of(tokens.text(token));
+        if (operator == null) {
+            throw error("Unknown operator", token);
+        }
+        int rightToken = peek();
+        Operand right = operand();
+        boolean regex = right.isLiteral() && right.asLiteral().is(LiteralType.REGEX);
+        if (regex != (operator == Operator.MATCHES)) {
+            throw error(regex ? "Expected =~ before regex" : "Expected regex after =~", rightToken);
+        }
+        if ((operator == Operator.IN || operator == Operator.NIN) && !right.isPath()
+                && !(right.asLiteral().is(LiteralType.JSON) && right.asLiteral().jsonValue().is(JsonValue.Kind.ARRAY))) {
+            throw error("Expected array after " + operator.symbol(), rightToken);
+        }
+        return ComparisonExpression.of(left, operator, right);
+    }
+
+    private Operand operand() {
+        int token = peek();
+        switch (tokens.type(token)) {
+            case ROOT_TOKEN:
+            case CONTEXT_TOKEN:
+                return PathOperand.of(path());
+            case STRING_LITERAL:
+                next();
+                return Literal.string(tokens.text(token));
+            case NUMBER_LITERAL:
+                next();
+                return Literal.number(tokens.text(token));
+            case BOOLEAN_LITERAL:
+                next();
+                return Literal.bool(tokens.text(token).equals("true"));
+            case NULL_LITERAL:
+                next();
+                return Literal.NULL;
+            case JSON_LITERAL:
+                next();
+                return Literal.json(tokens.text(token), tokens.json(token));
+            case REGEX:
+                next();
+                return Literal.regex(tokens.text(token));
+            default:
+                throw error("Expected literal or path", token);
+        }
+    }
+
+    private int integer(int token) {
+        try {
+            return Integer.parseInt(tokens.text(token));
+        } catch (NumberFormatException e) {
+            throw error("Expected integer", token);
+        }
+    }
+
+    private int expect(TokenType type) {
+        int token = peek();
+        if (!tokens.is(token, type)) {
+            throw error("Expected " + type, token);
+        }
+        return next();
+    }
+
+    private boolean is(TokenType type) {
+        return tokens.is(peek(), type);
+    }
+
+    private int peek() {
+        return pos < tokens.size() ? pos : tokens.size() - 1;
+    }
+
+    private int next() {
+        int token = peek();
+        pos++;
+        return token;
+    }
+
+    private ParseException error(String message, int token) {
+        return new ParseException(message, tokens, token);
+    }
+}
@@ -0,0 +1,152 @@
+package io.java.jpath.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Selects members by name. Each name is also kept with its hash and with its UTF-8 bytes and their hash, so
+ * evaluators can reject a key, decoded or not, on its hash before comparing it.
+ */
+public final class PropertySelector extends Selector {
+
+    private final List<String> names;
+    private final int[] hashes;
+    private final byte[][] utf8;
+    private final int[] utf8Hashes;
+
+    private PropertySelector(String[] names) {
+        super(SelectorType.PROPERTY);
+        if (names.length == 0) {
+            throw new IllegalArgumentException("property selector must have at least one name");
+        }
+        for (String name : names) {
+            requireNonNull(name);
+        }
+        this.names = Collections.unmodifiableList(Arrays.asList(names));
+        this.hashes = new int[names.length];
+        this.utf8 = new byte[names.length][];
+        this.utf8Hashes = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            hashes[i] = names[i].hashCode();
+            utf8[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            utf8Hashes[i] = hash(utf8[i], 0, utf8[i].length);
+        }
+    }
+
+    public static PropertySelector of(String... names) {
+        return new PropertySelector(names.clone());
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public String name(int i) {
+        return names.get(i);
+    }
+
+    public int count() {
+        return names.size();
+    }
+
+    /**
+     * The {@link String#hashCode()} of the name.
+     */
+    public int hash(int i) {
+        return hashes[i];
+    }
+
+    /**
+     * The hash of the bytes from {@code start} to {@code end}, to pass to
+     * {@link #matches(int, int, byte[], int, int)}. It equals {@link String#hashCode()} for ASCII.
+     */
+    public static int hash(byte[] bytes, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    public boolean matches(String key) {
+        int hash = key.hashCode();
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] == hash && names.get(i).equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The number of names equal to the key, more than one if the selector repeats it.
+     */
+    public int occurrences(String key) {
+        int hash = key.hashCode();
+        int occurrences = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] == hash && names.get(i).equals(key)) {
+                occurrences++;
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Like {@link #matches(int, byte[], int, int)}, but first rejects bytes whose {@link #hash(byte[], int, int)
+     * hash} differs from the name's.
+     */
+    public boolean matches(int i, int hash, byte[] bytes, int start, int end) {
+        return utf8Hashes[i] == hash && matches(i, bytes, start, end);
+    }
+
+    /**
+     * True if the bytes from {@code start} to {@code end} are the UTF-8 encoding of the name, compared
+     * without decoding or copying them.
+     */
+    public boolean matches(int i, byte[] bytes, int start, int end) {
+        byte[] name = utf8[i];
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int j = 0; j < name.length; j++) {
+            if (bytes[start + j] != name[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return names.size() == 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('\'').append(names.get(i)).append('\'');
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return names.equals(((PropertySelector) o).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+}
@@ -0,0 +1,24 @@
+package io.java.jpath.parser;
+
+/**
+ * The deep scan {@code ..}. Selects the current node and all of its descendants, the selector that follows
+ * is applied to each of them.
+ */
+public final class ScanSelector extends Selector {
+
+    public static final ScanSelector INSTANCE = new ScanSelector();
+
+    private ScanSelector() {
+        super(SelectorType.SCAN);
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "..";
+    }
+}
@@ -0,0 +1,27 @@
+package io.java.jpath.parser;
+
+/**
+ * One step of a compiled {@link Path}. Evaluators switch on {@link #type()} rather than dispatching
+ * through a visitor, the concrete subclass carries the pre-resolved arguments.
+ */
+public abstract class Selector {
+
+    private final SelectorType type;
+
+    Selector(SelectorType type) {
+        this.type = type;
+    }
+
+    public SelectorType type() {
+        return type;
+    }
+
+    public boolean is(SelectorType other) {
+        return type == other;
+    }
+
+    /**
+     * True if the selector yields at most one node.
+     */
+    public abstract boolean isDefinite();
+}
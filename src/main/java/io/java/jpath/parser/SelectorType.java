@@ -0,0 +1,11 @@
+package io.java.jpath.parser;
+
+public enum SelectorType {
+    PROPERTY,
+    INDEX,
+    SLICE,
+    WILDCARD,
+    SCAN,
+    FILTER,
+    FUNCTION
+}
@@ -0,0 +1,111 @@
+package io.java.jpath.parser;
+
+import java.util.Objects;
+
+/**
+ * An array slice {@code [start:end:step]} with Python semantics. Omitted bounds default according to the sign
+ * of the step, negative bounds count from the end of the array.
+ */
+public final class SliceSelector extends Selector {
+
+    private final Integer start;
+    private final Integer end;
+    private final int step;
+
+    private SliceSelector(Integer start, Integer end, int step) {
+        super(SelectorType.SLICE);
+        if (step == 0) {
+            throw new IllegalArgumentException("slice step must not be 0");
+        }
+        this.start = start;
+        this.end = end;
+        this.step = step;
+    }
+
+    public static SliceSelector of(Integer start, Integer end, Integer step) {
+        return new SliceSelector(start, end, step == null ? 1 : step);
+    }
+
+    public boolean hasStart() {
+        return start != null;
+    }
+
+    public boolean hasEnd() {
+        return end != null;
+    }
+
+    public int step() {
+        return step;
+    }
+
+    /**
+     * True unless the slice can be matched while streaming through the array, that is with a positive step
+     * and non-negative bounds.
+     */
+    public boolean needsLength() {
+        return step < 0 || (start != null && start < 0) || (end != null && end < 0);
+    }
+
+    /**
+     * Only valid when {@link #needsLength()} is false.
+     */
+    public boolean matches(int index) {
+        int from = start == null ? 0 : start;
+        return index >= from && (end == null || index < end) && (index - from) % step == 0;
+    }
+
+    /**
+     * Only valid when {@link #needsLength()} is false; -1 if the slice is unbounded.
+     */
+    public int upperBound() {
+        return end == null ? -1 : end;
+    }
+
+    /**
+     * The first index selected in an array of the given length.
+     */
+    public int from(int length) {
+        if (step > 0) {
+            return start == null ? 0 : clamp(start, length, 0, length);
+        }
+        return start == null ? length - 1 : clamp(start, length, -1, length - 1);
+    }
+
+    /**
+     * The exclusive bound on the indices selected in an array of the given length.
+     */
+    public int to(int length) {
+        if (step > 0) {
+            return end == null ? length : clamp(end, length, 0, length);
+        }
+        return end == null ? -1 : clamp(end, length, -1, length - 1);
+    }
+
+    private static int clamp(int bound, int length, int lower, int upper) {
+        int index = bound < 0 ? bound + length : bound;
+        return Math.max(lower, Math.min(upper, index));
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + (start == null ? "" : start) + ":" + (end == null ? "" : end) + ":" + step + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SliceSelector that = (SliceSelector) o;
+        return step == that.step && Objects.equals(start, that.start) && Objects.equals(end, that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end, step);
+    }
+}
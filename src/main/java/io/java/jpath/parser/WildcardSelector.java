@@ -0,0 +1,20 @@
+package io.java.jpath.parser;
+
+public final class WildcardSelector extends Selector {
+
+    public static final WildcardSelector INSTANCE = new WildcardSelector();
+
+    private WildcardSelector() {
+        super(SelectorType.WILDCARD);
+    }
+
+    @Override
+    public boolean isDefinite() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "[*]";
+    }
+}
@@ -0,0 +1,107 @@
+package io.java.jpath.cache;
+
+import io.java.jpath.lexer.LexException;
+import io.java.jpath.lexer.LexToken;
+import io.java.jpath.lexer.TokenBuffer;
+import io.java.jpath.parser.Path;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.java.jpath.lexer.TokenType.EOP;
+import static io.java.jpath.lexer.TokenType.IDENTIFIER;
+import static io.java.jpath.lexer.TokenType.PERIOD_TOKEN;
+import static io.java.jpath.lexer.TokenType.ROOT_TOKEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PathCacheTest {
+
+    @Test
+    public void tokens_are_memoized_test() {
+        PathCache<TokenBuffer> cache = PathCache.tokens(10);
+
+        TokenBuffer first = cache.get("$.foo");
+        TokenBuffer second = cache.get("$.foo");
+
+        assertThat(first.tokens()).containsExactly(
+                LexToken.of(ROOT_TOKEN, "$", 0, 1),
+                LexToken.of(PERIOD_TOKEN, ".", 1, 2),
+                LexToken.of(IDENTIFIER, "foo", 2, 5),
+                LexToken.of(EOP, "", 5, 5)
+        );
+        assertThat(second).isSameAs(first);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    public void equivalent_paths_share_an_entry_test() {
+        PathCache<Path> cache = PathCache.paths(10);
+
+        Path path = cache.get("$['store'][\"book\"][ * ]");
+
+        assertThat(cache.get("$.store.book.*")).isSameAs(path);
+        assertThat(cache.get(" $.store['book'][*]")).isSameAs(path);
+        assertThat(path.source()).isEqualTo("$.store.book[*]");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.stats().hits()).isEqualTo(2);
+    }
+
+    @Test
+    public void size_is_bounded_test() {
+        PathCache<String> cache = PathCache.of(3, p -> p);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("$.p" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.stats().misses()).isEqualTo(100);
+        assertThat(cache.stats().evictions() + cache.stats().rejections()).isEqualTo(97);
+    }
+
+    @Test
+    public void frequent_paths_survive_a_scan_test() {
+        AtomicInteger compilations = new AtomicInteger();
+        PathCache<String> cache = PathCache.of(4, p -> {
+            compilations.incrementAndGet();
+            return p;
+        });
+        for (int i = 0; i < 1000; i++) {
+            cache.get("$.hot" + (i % 4));
+            cache.get("$.cold" + i);
+        }
+        compilations.set(0);
+        for (int i = 0; i < 4; i++) {
+            cache.get("$.hot" + i);
+        }
+
+        assertThat(compilations.get()).isZero();
+        assertThat(cache.stats().rejections()).isGreaterThan(990);
+    }
+
+    @Test
+    public void popular_path_is_eventually_admitted_test() {
+        PathCache<String> cache = PathCache.of(2, p -> p);
+        cache.get("$.a");
+        cache.get("$.b");
+
+        for (int i = 0; i < 3; i++) {
+            cache.get("$.c");
+        }
+        long misses = cache.stats().misses();
+        cache.get("$.c");
+
+        assertThat(cache.stats().misses()).isEqualTo(misses);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void failures_are_not_cached_test() {
+        PathCache<TokenBuffer> cache = PathCache.tokens(10);
+
+        assertThatThrownBy(() -> cache.get("$[]")).isInstanceOf(LexException.class);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,103 @@
+package io.java.jpath.cache;
+
+import io.java.jpath.parser.Path;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PlanRegistryTest {
+
+    @Test
+    public void concurrent_requests_compile_once_test() throws Exception {
+        AtomicInteger compilations = new AtomicInteger();
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PlanRegistry<Object> registry = PlanRegistry.of(10, p -> {
+            compilations.incrementAndGet();
+            compiling.countDown();
+            await(release);
+            return new Object();
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Object>> plans = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                plans.add(pool.submit(() -> registry.get("$.a")));
+            }
+            assertThat(compiling.await(10, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            Object plan = plans.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object> other : plans) {
+                assertThat(other.get(10, TimeUnit.SECONDS)).isSameAs(plan);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(compilations.get()).isEqualTo(1);
+        assertThat(registry.stats().misses()).isEqualTo(1);
+        assertThat(registry.stats().hits()).isEqualTo(63);
+    }
+
+    @Test
+    public void equivalent_paths_share_a_plan_test() {
+        PlanRegistry<Path> registry = PlanRegistry.paths(10);
+
+        Path path = registry.get("$['store'].book[ 0 ]");
+
+        assertThat(registry.get("$.store.book[0]")).isSameAs(path);
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void failures_are_retried_test() {
+        AtomicInteger calls = new AtomicInteger();
+        PlanRegistry<String> registry = PlanRegistry.of(10, p -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalArgumentException("first");
+            }
+            return p;
+        });
+
+        assertThatThrownBy(() -> registry.get("$.a")).isInstanceOf(IllegalArgumentException.class).hasMessage("first");
+        assertThat(registry.size()).isZero();
+        assertThat(registry.get("$.a")).isEqualTo("$.a");
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void size_is_bounded_test() {
+        PlanRegistry<String> registry = PlanRegistry.of(3, p -> p);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(registry.get("$.p" + i)).isEqualTo("$.p" + i);
+        }
+
+        assertThat(registry.size()).isEqualTo(3);
+        assertThat(registry.stats().evictions()).isEqualTo(7);
+        assertThat(registry.stats().rejections()).isZero();
+        registry.get("$.p9");
+        assertThat(registry.stats().hits()).isEqualTo(1);
+        registry.invalidate("$.p9");
+        assertThat(registry.size()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
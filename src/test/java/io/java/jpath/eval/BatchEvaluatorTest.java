@@ -0,0 +1,94 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BatchEvaluatorTest {
+
+    @Test
+    public void results_are_in_document_order_test() {
+        List<byte[]> documents = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            documents.add(("{\"id\": " + i + ", \"items\": [" + i % 7 + ", " + i % 3 + "]}").getBytes(StandardCharsets.UTF_8));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (String path : Arrays.asList("$.id", "$.items[?(@ > 1)]", "$..*")) {
+                Path compiled = PathParser.parse(path);
+                List<List<JsonNode>> expected = new ArrayList<>();
+                for (byte[] document : documents) {
+                    expected.add(StreamingEvaluator.evaluate(compiled, document));
+                }
+
+                assertThat(BatchEvaluator.of(compiled).evaluateAll(documents)).isEqualTo(expected);
+                assertThat(BatchEvaluator.of(compiled, pool, 4).evaluateAll(documents)).isEqualTo(expected);
+                assertThat(BatchEvaluator.of(compiled, pool, 4).evaluateAll(documents.stream())).isEqualTo(expected);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void rejected_workers_leave_documents_to_the_caller_test() {
+        BatchEvaluator batch = BatchEvaluator.of(PathParser.parse("$.a"), task -> {
+            throw new RejectedExecutionException();
+        }, 8);
+
+        List<List<JsonNode>> results = batch.evaluateAll(Stream.of("{\"a\": 1}", "{\"b\": 2}", "{\"a\": 3}")
+                .map(json -> json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).toString()).isEqualTo("[1]");
+        assertThat(results.get(1)).isEmpty();
+        assertThat(results.get(2).toString()).isEqualTo("[3]");
+        assertThat(batch.evaluateAll(new ArrayList<>())).isEmpty();
+    }
+
+    @Test
+    public void workers_that_never_start_do_not_block_the_caller_test() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        BatchEvaluator batch = BatchEvaluator.of(PathParser.parse("$.a"), queued::add, 4);
+
+        assertThat(batch.evaluateAll(Stream.of("{\"a\": 1}", "{\"a\": 2}").map(json -> json.getBytes(StandardCharsets.UTF_8))))
+                .hasSize(2);
+        assertThat(queued).hasSize(1);
+
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            BatchEvaluator nested = BatchEvaluator.of(PathParser.parse("$.a"), single, 4);
+            Future<List<List<JsonNode>>> results = single.submit(() -> nested.evaluateAll(
+                    Stream.of("{\"a\": 1}", "{\"a\": 2}", "{\"a\": 3}").map(json -> json.getBytes(StandardCharsets.UTF_8))));
+
+            assertThat(results.get(10, TimeUnit.SECONDS)).hasSize(3);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void failures_name_the_document_test() {
+        List<byte[]> documents = Arrays.asList("{\"a\": 1}".getBytes(StandardCharsets.UTF_8),
+                "{\"a\": ".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> BatchEvaluator.of(PathParser.parse("$..a")).evaluateAll(documents))
+                .isInstanceOf(EvaluationException.class)
+                .hasMessage("Failed to evaluate document: 1");
+    }
+}
@@ -0,0 +1,59 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompiledPathTest {
+
+    private static final JsonNode STORE = Json.readTree(Documents.STORE);
+
+    @Test
+    public void compiled_matches_tree_test() {
+        for (String source : Arrays.asList(
+                "$",
+                "$.store.bicycle.color",
+                "$.store.bicycle['color', 'price', 'missing']",
+                "$.store.book[0].author",
+                "$.store.book[-1].author",
+                "$.store.book[0, -2, 10].price",
+                "$.store.book[*].author",
+                "$.store.*",
+                "$.store.book[?(@.price < 10)].title",
+                "$.store.book[?(@.price <= $.expensive)].price",
+                "$.store.book[1:3].price",
+                "$.store..price",
+                "$.store.book.length()",
+                "$.store.book[0].missing.deeper",
+                "$.store.bicycle[0]")) {
+            Path path = PathParser.parse(source);
+
+            assertThat(CompiledPath.compile(path).evaluate(STORE))
+                    .as(source)
+                    .containsExactlyElementsOf(TreeEvaluator.evaluate(path, STORE));
+        }
+    }
+
+    @Test
+    public void compiled_constants_test() {
+        CompiledPath compiled = CompiledPath.compile(PathParser.parse("$['a.b', \"c'd\"][100000]"));
+
+        assertThat(compiled.evaluate(Json.readTree("{\"c'd\": [1, 2]}"))).isEmpty();
+        assertThat(compiled.getClass().getClassLoader()).isNotSameAs(CompiledPath.class.getClassLoader());
+        assertThat(compiled.toString()).isEqualTo("$['a.b', \"c'd\"][100000]");
+    }
+
+    @Test
+    public void compiled_filter_errors_propagate_test() {
+        CompiledPath compiled = CompiledPath.compile(PathParser.parse("$[?(@ =~ /(.*a){12}/)]"));
+
+        assertThatThrownBy(() -> compiled.evaluate(Json.readTree("['aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!']")))
+                .isInstanceOf(EvaluationException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DocumentIndexTest {
+
+    private static final JsonNode STORE = Json.readTree(Documents.STORE);
+
+    @Test
+    public void index_matches_tree_test() {
+        DocumentIndex index = DocumentIndex.of(Documents.STORE.getBytes(StandardCharsets.UTF_8));
+
+        for (String source : Arrays.asList(
+                "$",
+                "$.store.bicycle.color",
+                "$.store.bicycle['color', 'price', 'missing']",
+                "$.store.book[0].author",
+                "$.store.book[-1].author",
+                "$.store.book[0, -2, 10].price",
+                "$.store.book[1:3].price",
+                "$.store.book[::-1].title",
+                "$.store.book[*].author",
+                "$.store.*",
+                "$.*",
+                "$.store.book[?(@.price < 10)].title",
+                "$.store.book[?(@.price <= $.expensive)].price",
+                "$..price",
+                "$.store.book.length()",
+                "$.store.bicycle[0]",
+                "$.expensive.missing")) {
+            Path path = PathParser.parse(source);
+
+            assertThat(index.evaluate(path)).as(source).containsExactlyElementsOf(TreeEvaluator.evaluate(path, STORE));
+        }
+    }
+
+    @Test
+    public void index_values_test() {
+        String json = "  {\"a\\u0062\": 1, 'c': 'd', \"e\": [true, false, null, -1.5e3, 12345678901234567890, \"\\\"x\"],"
+                + " \"f\": {}, \"g\": [], \"dup\": 1, \"dup\": 2, \"\u00e9\": \"\u5317\"}  ";
+        DocumentIndex index = DocumentIndex.of(json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(index.evaluate(PathParser.parse("$.ab"))).containsExactly(Json.readTree("1"));
+        assertThat(index.evaluate(PathParser.parse("$.c"))).containsExactly(Json.readTree("\"d\""));
+        assertThat(index.evaluate(PathParser.parse("$.e[*]"))).containsExactlyElementsOf(Json.readTree(json).get("e"));
+        assertThat(index.evaluate(PathParser.parse("$.f"))).containsExactly(Json.readTree("{}"));
+        assertThat(index.evaluate(PathParser.parse("$.g[*]"))).isEmpty();
+        assertThat(index.evaluate(PathParser.parse("$.dup"))).containsExactly(Json.readTree("2"));
+        assertThat(index.evaluate(PathParser.parse("$['\u00e9']"))).containsExactly(Json.readTree("\"\u5317\""));
+    }
+
+    @Test
+    public void index_slice_of_buffer_test() {
+        byte[] bytes = "xx[1, [2, 3]]yy".getBytes(StandardCharsets.UTF_8);
+        DocumentIndex index = DocumentIndex.of(bytes, 2, bytes.length - 4);
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.evaluate(PathParser.parse("$[1][-1]"))).containsExactly(Json.readTree("3"));
+    }
+
+    @Test
+    public void index_invalid_json_test() {
+        for (String json : Arrays.asList("", "{", "[1,", "{\"a\" 1}", "[1] 2", "{1: 2}", "[tru]", "[\"a]")) {
+            assertThatThrownBy(() -> DocumentIndex.of(json.getBytes(StandardCharsets.UTF_8)))
+                    .as(json)
+                    .isInstanceOf(EvaluationException.class)
+                    .hasMessageStartingWith("Invalid JSON at offset: ");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.java.jpath.eval;
+
+final class Documents {
+
+    static final String STORE = "{\n" +
+            "  \"store\": {\n" +
+            "    \"book\": [\n" +
+            "      {\"category\": \"reference\", \"author\": \"Nigel Rees\", \"title\": \"Sayings of the Century\", \"price\": 8.95},\n" +
+            "      {\"category\": \"fiction\", \"author\": \"Evelyn Waugh\", \"title\": \"Sword of Honour\", \"price\": 12.99},\n" +
+            "      {\"category\": \"fiction\", \"author\": \"Herman Melville\", \"title\": \"Moby Dick\", \"isbn\": \"0-553-21311-3\", \"price\": 8.99},\n" +
+            "      {\"category\": \"fiction\", \"author\": \"J. R. R. Tolkien\", \"title\": \"The Lord of the Rings\", \"isbn\": \"0-395-19395-8\", \"price\": 22.99, \"tags\": [\"epic\", \"classic\"]}\n" +
+            "    ],\n" +
+            "    \"bicycle\": {\"color\": \"red\", \"price\": 19.95}\n" +
+            "  },\n" +
+            "  \"expensive\": 10\n" +
+            "}";
+
+    private Documents() {
+    }
+}
@@ -0,0 +1,90 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileEvaluatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mapped_document_test() throws IOException {
+        java.nio.file.Path file = folder.newFile("store.json").toPath();
+        Files.write(file, Documents.STORE.getBytes(StandardCharsets.UTF_8));
+        JsonNode store = Json.readTree(Documents.STORE);
+
+        for (String source : Arrays.asList("$.store.book[*].author", "$.store.bicycle.color", "$.expensive")) {
+            Path path = PathParser.parse(source);
+
+            assertThat(FileEvaluator.evaluate(path, file)).containsExactlyElementsOf(TreeEvaluator.evaluate(path, store));
+
+            List<JsonNode> regions = new ArrayList<>();
+            FileEvaluator.evaluate(PathSet.of(path), file, (p, value) -> regions.add(value), 7);
+            assertThat(regions).containsExactlyElementsOf(TreeEvaluator.evaluate(path, store));
+        }
+    }
+
+    @Test
+    public void mapped_lines_test() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            offsets.add((long) lines.length());
+            lines.append("{\"id\": ").append(i).append(", \"user\": {\"name\": \"u").append(i % 7).append("\"}}")
+                 .append(i % 10 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                lines.append("  \n");
+            }
+        }
+        java.nio.file.Path file = folder.newFile("audit.ndjson").toPath();
+        Files.write(file, lines.toString().getBytes(StandardCharsets.UTF_8));
+        PathSet paths = PathSet.of(PathParser.parse("$.id"), PathParser.parse("$.user.name"));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int regionSize : new int[]{FileEvaluator.REGION_SIZE, 256}) {
+                Map<Long, JsonNode[]> matches = new ConcurrentHashMap<>();
+                FileEvaluator.evaluateLines(paths, file, pool, (offset, path, value) ->
+                        matches.computeIfAbsent(offset, o -> new JsonNode[2])[path] = value, regionSize);
+
+                assertThat(matches.keySet()).containsExactlyInAnyOrderElementsOf(offsets);
+                for (int i = 0; i < offsets.size(); i++) {
+                    JsonNode[] line = matches.get(offsets.get(i));
+                    assertThat(line[0].intValue()).isEqualTo(i);
+                    assertThat(line[1].textValue()).isEqualTo("u" + i % 7);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void mapped_lines_too_long_test() throws IOException {
+        java.nio.file.Path file = folder.newFile("long.ndjson").toPath();
+        Files.write(file, "{\"a\": \"0123456789012345678901234567890123456789\"}\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> FileEvaluator.evaluateLines(PathSet.of(PathParser.parse("$.a")), file,
+                ForkJoinPool.commonPool(), (offset, path, value) -> {
+                }, 16))
+                .isInstanceOf(EvaluationException.class)
+                .hasMessage("Line at offset: 0 is longer than 16 bytes");
+    }
+}
@@ -0,0 +1,81 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyPrefilterTest {
+
+    @Test
+    public void required_keys_test() {
+        assertThat(KeyPrefilter.requiredKeys(PathParser.parse("$.a[*]['b', 'c'].d..e[?(@.f)].length()")))
+                .containsExactly("a", "d", "e");
+        assertThat(KeyPrefilter.requiredKeys(PathParser.parse("$[0][*]"))).isEmpty();
+    }
+
+    @Test
+    public void rejects_paths_without_their_keys_test() {
+        KeyPrefilter prefilter = KeyPrefilter.of(paths("$.tenant.id", "$..region", "$.orders[*].sku", "$[0]", "$.missing"));
+
+        BitSet candidates = prefilter.candidates(json("{\"tenant\": {\"id\": 7}, \"orders\": [{\"sku\": \"a\"}]}"));
+
+        assertThat(candidates.get(0)).isTrue();
+        assertThat(candidates.get(2)).isTrue();
+        assertThat(candidates.get(3)).isTrue();
+        assertThat(candidates.get(4)).isFalse();
+    }
+
+    @Test
+    public void rejected_paths_never_match_test() {
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            sources.add("$.k" + i + ".k" + (i * 7 % 200));
+        }
+        KeyPrefilter prefilter = KeyPrefilter.of(paths(sources.toArray(new String[0])));
+        int candidates = 0;
+        for (int d = 0; d < 50; d++) {
+            StringBuilder document = new StringBuilder("{");
+            for (int k = 0; k < 5; k++) {
+                int key = (d * 13 + k * 41) % 200;
+                document.append(k == 0 ? "" : ", ").append("\"k").append(key).append("\": {\"k").append(key * 7 % 200).append("\": ").append(d).append('}');
+            }
+            byte[] json = json(document.append('}').toString());
+            JsonNode root = Json.readTree(json, 0, json.length);
+
+            BitSet candidate = prefilter.candidates(json);
+            List<String> matched = new ArrayList<>();
+            prefilter.evaluate(json, (path, value) -> matched.add(path + "=" + value));
+            List<String> expected = new ArrayList<>();
+            for (int p = 0; p < prefilter.size(); p++) {
+                for (JsonNode value : TreeEvaluator.evaluate(prefilter.path(p), root)) {
+                    assertThat(candidate.get(p)).isTrue();
+                    expected.add(p + "=" + value);
+                }
+            }
+            assertThat(matched).isEqualTo(expected);
+            candidates += candidate.cardinality();
+        }
+        assertThat(candidates).isLessThan(50 * 20);
+    }
+
+    private static List<Path> paths(String... sources) {
+        List<Path> paths = new ArrayList<>();
+        for (String source : Arrays.asList(sources)) {
+            paths.add(PathParser.parse(source));
+        }
+        return paths;
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,99 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathSetTest {
+
+    @Test
+    public void shared_prefixes_are_merged_test() {
+        PathSet set = PathSet.of(
+                PathParser.parse("$.store.book[*].title"),
+                PathParser.parse("$.store.book[*].price"),
+                PathParser.parse("$['store'].bicycle"));
+
+        assertThat(set.nodeCount()).isEqualTo(7);
+    }
+
+    @Test
+    public void evaluates_every_path_test() {
+        List<Path> paths = new ArrayList<>();
+        for (String p : new String[]{
+                "$.store.book[*].title",
+                "$.store.book[*].price",
+                "$.store.book[0].title",
+                "$.store.book[-1].title",
+                "$.store.book[?(@.price < 10)].title",
+                "$.store.book.length()",
+                "$..price",
+                "$.store.*",
+                "$.expensive",
+                "$.store.book[*].title"}) {
+            paths.add(PathParser.parse(p));
+        }
+        JsonNode store = Json.readTree(Documents.STORE);
+
+        List<List<JsonNode>> matches = PathSet.of(paths).evaluate(Documents.STORE.getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < paths.size(); i++) {
+            assertThat(matches.get(i)).as(paths.get(i).source())
+                    .containsExactlyElementsOf(TreeEvaluator.evaluate(paths.get(i), store));
+        }
+    }
+
+    @Test
+    public void document_is_read_once_test() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (String p : new String[]{"$..price", "$.store.book[*].title", "$.store.bicycle.color", "$..author"}) {
+            paths.add(PathParser.parse(p));
+        }
+        int fullPass = count(Json.FACTORY.createParser(Documents.STORE), null);
+
+        int tokens = count(Json.FACTORY.createParser(Documents.STORE), PathSet.of(paths));
+
+        assertThat(tokens).isLessThanOrEqualTo(fullPass);
+    }
+
+    @Test
+    public void definite_set_stops_when_all_matched_test() {
+        String truncated = "{\"a\": 1, \"b\": {\"c\": [0, 1, 2]}, \"d\": [";
+        PathSet set = PathSet.of(PathParser.parse("$.a"), PathParser.parse("$.b.c[1]"));
+
+        List<List<JsonNode>> matches = set.evaluate(truncated.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(matches.get(0)).extracting(JsonNode::toString).containsExactly("1");
+        assertThat(matches.get(1)).extracting(JsonNode::toString).containsExactly("1");
+    }
+
+    private static int count(JsonParser parser, PathSet set) throws IOException {
+        int[] tokens = {0};
+        JsonParser counting = new JsonParserDelegate(parser) {
+            @Override
+            public JsonToken nextToken() throws IOException {
+                tokens[0]++;
+                return super.nextToken();
+            }
+        };
+        if (set == null) {
+            while (counting.nextToken() != null) {
+                // one full pass
+            }
+        } else {
+            set.evaluate(counting, (path, value) -> {
+            });
+        }
+        return tokens[0];
+    }
+}
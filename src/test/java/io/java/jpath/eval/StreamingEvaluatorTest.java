@@ -0,0 +1,197 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.Path;
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StreamingEvaluatorTest {
+
+    private static final String[] PATHS = {
+            "$",
+            "$.store.bicycle.color",
+            "$.store.bicycle['color', 'price']",
+            "$.store.book[0].author",
+            "$.store.book[-1].author",
+            "$.store.book[0, 2].price",
+            "$.store.book[1:3].price",
+            "$.store.book[::2].price",
+            "$.store.book[-2:].price",
+            "$.store.book[10]",
+            "$.store.bicycle.*",
+            "$.store.*",
+            "$..author",
+            "$.store..price",
+            "$..book[2].title",
+            "$..tags[*]",
+            "$..*",
+            "$.store.book[?(@.isbn)].title",
+            "$.store.book[?(@.price < 10)].price",
+            "$.store.book[?(@.price <= $.expensive)].price",
+            "$..[?(@.color == 'red')].price",
+            "$.store.book.length()",
+            "$.store.book[*].tags.length()",
+            "$.expensive",
+            "$.expensive.missing",
+    };
+
+    @Test
+    public void streaming_matches_tree_test() {
+        JsonNode store = Json.readTree(Documents.STORE);
+        for (String p : PATHS) {
+            Path path = PathParser.parse(p);
+            List<JsonNode> expected = TreeEvaluator.evaluate(path, store);
+            List<JsonNode> actual = StreamingEvaluator.evaluate(path, Documents.STORE.getBytes(StandardCharsets.UTF_8));
+
+            if (p.contains("..")) {
+                assertThat(actual).as(p).containsExactlyInAnyOrderElementsOf(expected);
+            } else {
+                assertThat(actual).as(p).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    public void streaming_matches_tree_on_unions_and_nested_scans_test() {
+        String[] documents = {
+                "{\"c\": {}, \"d\": true}",
+                "{\"d\": {\"a\": 1, \"b\": [2, 3]}, \"c\": [4, 5, 6]}",
+                "[{\"c\": [[\"b\", 1.8, 1], [\"b\", 6.5], {}, 8.2], \"d\": \"a\"}, 5]",
+                "{\"a\": {\"a\": {\"a\": [1, {\"a\": 2}]}}, \"b\": [[0, 1], [2, [3, 4]]]}",
+        };
+        String[] paths = {
+                "$['d', 'c']",
+                "$['d', 'c'][*]",
+                "$.d['b', 'a']",
+                "$.d['a', 'a']",
+                "$.d['a', 'b', 'a']",
+                "$['c', 'd'].b[1, 0]",
+                "$.c[2, 0]",
+                "$.c[0, 0, 1]",
+                "$[*].c[1, 0]",
+                "$[*]['d', 'c'][*]",
+                "$..*..[1]",
+                "$..*..*",
+                "$..a..a",
+                "$..['a', 'a']",
+                "$..[1, 1]",
+                "$..b..[0]",
+        };
+        for (String document : documents) {
+            JsonNode tree = Json.readTree(document);
+            for (String p : paths) {
+                Path path = PathParser.parse(p);
+                List<JsonNode> expected = TreeEvaluator.evaluate(path, tree);
+                List<JsonNode> actual = StreamingEvaluator.evaluate(path, bytes(document));
+
+                if (p.contains("..")) {
+                    assertThat(actual).as(p + " on " + document).containsExactlyInAnyOrderElementsOf(expected);
+                } else {
+                    assertThat(actual).as(p + " on " + document).containsExactlyElementsOf(expected);
+                }
+            }
+        }
+        assertThat(StreamingEvaluator.evaluate(PathParser.parse("$['d', 'c']"), bytes(documents[0])))
+                .extracting(JsonNode::toString)
+                .containsExactly("true", "{}");
+        assertThat(StreamingEvaluator.evaluate(PathParser.parse("$..*..[1]"), bytes(documents[2]))).hasSize(8);
+    }
+
+    @Test
+    public void definite_path_stops_after_match_test() {
+        String truncated = "{\"a\": {\"b\": 1}, \"c\": [1, 2, ";
+
+        List<JsonNode> matches = StreamingEvaluator.evaluate(PathParser.parse("$.a.b"), bytes(truncated));
+
+        assertThat(matches).extracting(JsonNode::toString).containsExactly("1");
+    }
+
+    @Test
+    public void stops_once_nothing_else_can_match_test() {
+        String truncated = "{\"a\": [{\"b\": 1, \"c\": {\"d\": 2}}, {\"x\": 0, \"b\": [2]}, 3], \"z\": [1, ";
+
+        List<JsonNode> matches = StreamingEvaluator.evaluate(PathParser.parse("$.a[*].b"), bytes(truncated));
+
+        assertThat(matches).extracting(JsonNode::toString).containsExactly("1", "[2]");
+    }
+
+    @Test
+    public void array_bounds_stop_slice_test() {
+        String truncated = "{\"a\": [0, 1, 2, 3]}, {\"unreachable\": ";
+
+        assertThat(StreamingEvaluator.evaluate(PathParser.parse("$.a[1:3]"), bytes(truncated)))
+                .extracting(JsonNode::toString)
+                .containsExactly("1", "2");
+    }
+
+    @Test
+    public void pull_matches_one_at_a_time_test() throws Exception {
+        try (JsonParser parser = Json.FACTORY.createParser("{\"a\": [1, 2, 3]}")) {
+            StreamingEvaluator evaluator = StreamingEvaluator.of(PathParser.parse("$.a[*]"), parser);
+
+            assertThat(evaluator.next().intValue()).isEqualTo(1);
+            assertThat(evaluator.next().intValue()).isEqualTo(2);
+            assertThat(evaluator.next().intValue()).isEqualTo(3);
+            assertThat(evaluator.next()).isNull();
+        }
+    }
+
+    @Test
+    public void stream_reads_as_consumed_test() {
+        StringBuilder json = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < 100_000; i++) {
+            json.append(i == 0 ? "" : ", ").append("{\"id\": ").append(i).append('}');
+        }
+        byte[] document = bytes(json.append("]}").toString());
+        AtomicLong read = new AtomicLong();
+        InputStream counting = new FilterInputStream(new ByteArrayInputStream(document)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                read.addAndGet(Math.max(n, 0));
+                return n;
+            }
+        };
+        AtomicBoolean closed = new AtomicBoolean();
+
+        try (Stream<JsonNode> ids = StreamingEvaluator.stream(PathParser.parse("$.items[*].id"), counting).onClose(() -> closed.set(true))) {
+            assertThat(ids.limit(3).map(JsonNode::intValue)).containsExactly(0, 1, 2);
+        }
+
+        assertThat(read.get()).isLessThan(document.length / 10);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    public void iterator_test() throws Exception {
+        try (JsonParser parser = Json.FACTORY.createParser("{\"a\": [1, 2]}")) {
+            Iterator<JsonNode> matches = StreamingEvaluator.of(PathParser.parse("$.a[*]"), parser).iterator();
+
+            assertThat(matches.next().intValue()).isEqualTo(1);
+            assertThat(matches.hasNext()).isTrue();
+            assertThat(matches.next().intValue()).isEqualTo(2);
+            assertThat(matches.hasNext()).isFalse();
+            assertThatThrownBy(matches::next).isInstanceOf(NoSuchElementException.class);
+        }
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
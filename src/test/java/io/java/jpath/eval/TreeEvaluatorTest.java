@@ -0,0 +1,167 @@
+package io.java.jpath.eval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.java.jpath.parser.FilterSelector;
+import io.java.jpath.parser.Literal;
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TreeEvaluatorTest {
+
+    private static final JsonNode STORE = Json.readTree(Documents.STORE);
+
+    @Test
+    public void properties_test() {
+        assertEval("$.store.bicycle.color", "\"red\"");
+        assertEval("$['store']['bicycle']['color']", "\"red\"");
+        assertEval("$.store.bicycle['color', 'price']", "\"red\"", "19.95");
+        assertEval("$.store.missing");
+        assertEval("$.expensive.missing");
+    }
+
+    @Test
+    public void array_test() {
+        assertEval("$.store.book[0].author", "\"Nigel Rees\"");
+        assertEval("$.store.book[-1].author", "\"J. R. R. Tolkien\"");
+        assertEval("$.store.book[0, 2].price", "8.95", "8.99");
+        assertEval("$.store.book[1:3].price", "12.99", "8.99");
+        assertEval("$.store.book[::2].price", "8.95", "8.99");
+        assertEval("$.store.book[-2:].price", "8.99", "22.99");
+        assertEval("$.store.book[::-1].price", "22.99", "8.99", "12.99", "8.95");
+        assertEval("$.store.book[10]");
+    }
+
+    @Test
+    public void wildcard_and_scan_test() {
+        assertEval("$.store.bicycle.*", "\"red\"", "19.95");
+        assertEval("$..author", "\"Nigel Rees\"", "\"Evelyn Waugh\"", "\"Herman Melville\"", "\"J. R. R. Tolkien\"");
+        assertEval("$.store..price", "8.95", "12.99", "8.99", "22.99", "19.95");
+        assertEval("$..book[2].title", "\"Moby Dick\"");
+        assertEval("$..tags[*]", "\"epic\"", "\"classic\"");
+    }
+
+    @Test
+    public void filter_test() {
+        assertEval("$.store.book[?(@.isbn)].title", "\"Moby Dick\"", "\"The Lord of the Rings\"");
+        assertEval("$.store.book[?(!@.isbn)].price", "8.95", "12.99");
+        assertEval("$.store.book[?(@.price < 10)].price", "8.95", "8.99");
+        assertEval("$.store.book[?(@.price <= $.expensive)].price", "8.95", "8.99");
+        assertEval("$.store.book[?(@.category == 'reference')].price", "8.95");
+        assertEval("$.store.book[?(@.category != 'fiction' || @.price > 20)].price", "8.95", "22.99");
+        assertEval("$.store.book[?(@.author =~ /.*rees/i)].price", "8.95");
+        assertEval("$.store.book[?(@.tags == ['epic', 'classic'])].price", "22.99");
+        assertEval("$.store.book[?(@.tags[*] == 'x')].price");
+        assertEval("$..[?(@.color == 'red')].price", "19.95");
+    }
+
+    @Test
+    public void filter_operand_test() {
+        assertEval("$.store.book[?(10 > @.price)].price", "8.95", "8.99");
+        assertEval("$.store.book[?('reference' == @.category)].price", "8.95");
+        assertEval("$.store.book[?(@.isbn != '0-553-21311-3')].price", "8.95", "12.99", "22.99");
+        assertEval("$.store.book[?(@.price != 8.95)].price", "12.99", "8.99", "22.99");
+        assertEval("$.store.book[?(@.category > 'fiction')].price", "8.95");
+        assertEval("$.store.book[?(@.author < 10)].price");
+        assertEval("$.store.book[?(@.tags[0] == 'epic')].price", "22.99");
+        assertEval("$.store.book[?(@.price == @.price)].price", "8.95", "12.99", "8.99", "22.99");
+        assertEval("$.store.book[?(@.missing == null)].price");
+        assertEval("$.store.book[?(true)].price", "8.95", "12.99", "8.99", "22.99");
+        assertEval("$.store.book[?(null)].price");
+    }
+
+    @Test
+    public void filter_in_test() {
+        assertEval("$.store.book[?(@.category in ['reference', 'poetry'])].price", "8.95");
+        assertEval("$.store.book[?(@.category nin ['reference', 'poetry'])].price", "12.99", "8.99", "22.99");
+        assertEval("$.store.book[?(@.price in [8.95, 8.99])].price", "8.95", "8.99");
+        assertEval("$.store.book[?(@.tags in [['epic', 'classic']])].price", "22.99");
+        assertEval("$.store.book[?(@.isbn in ['0-553-21311-3'])].price", "8.99");
+        assertEval("$.store.book[?(@.isbn nin ['0-553-21311-3'])].price", "8.95", "12.99", "22.99");
+        assertEval("$.store.book[?('epic' in @.tags)].price", "22.99");
+        assertEval("$.store.book[?(@.price in $.store.book[*].price)].price", "8.95", "12.99", "8.99", "22.99");
+
+        StringBuilder allowList = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            allowList.append(i == 0 ? "'" : ", '").append("author ").append(i).append('\'');
+        }
+        allowList.append(", 'Herman Melville']");
+        assertEval("$.store.book[?(@.author in " + allowList + ")].price", "8.99");
+    }
+
+    @Test
+    public void filter_compiled_once_test() {
+        FilterSelector filter = (FilterSelector) PathParser.parse("$[?(@.price < 10)]").selector(0);
+
+        FilterPredicate predicate = FilterCompiler.predicate(filter);
+
+        assertThat(FilterCompiler.predicate(filter)).isSameAs(predicate);
+        assertThat(predicate.test(Json.readTree("{\"price\": 8}"), null)).isTrue();
+        assertThat(predicate.test(Json.readTree("{\"price\": \"8\"}"), null)).isFalse();
+    }
+
+    @Test
+    public void regex_cache_test() {
+        Pattern pattern = Regexes.pattern(Literal.regex("/^a.*/i"));
+
+        assertThat(Regexes.pattern(Literal.regex("/^a.*/i"))).isSameAs(pattern);
+        assertThat(Regexes.pattern(Literal.regex("/^a.*/"))).isNotSameAs(pattern);
+        assertThat(pattern.flags()).isEqualTo(Pattern.CASE_INSENSITIVE);
+    }
+
+    @Test
+    public void regex_step_budget_test() {
+        Pattern pattern = Pattern.compile("(.*a){12}");
+        String input = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!";
+
+        assertThat(Regexes.matches(pattern, "aaaaaaaaaaaa", 100_000)).isTrue();
+        assertThatThrownBy(() -> Regexes.matches(pattern, input, 10_000))
+                .isInstanceOf(EvaluationException.class)
+                .hasMessage("Regex /(.*a){12}/ exceeded 10000 steps");
+        assertThatThrownBy(() -> TreeEvaluator.evaluate(PathParser.parse("$[?(@ =~ /(.*a){12}/)]"), Json.readTree("['" + input + "']")))
+                .isInstanceOf(EvaluationException.class);
+    }
+
+    @Test
+    public void parallel_test() {
+        StringBuilder json = new StringBuilder("{\"orders\": [");
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"total\": ").append(i * 7 % 1300)
+                .append(", \"lines\": [{\"sku\": \"s").append(i).append("\"}]}");
+        }
+        JsonNode document = Json.readTree(json.append("], \"count\": 500}").toString());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String path : Arrays.asList("$.orders[*].id", "$..orders[?(@.total > 1000)].id", "$..sku", "$..*", "$.*")) {
+                List<JsonNode> sequential = TreeEvaluator.evaluate(PathParser.parse(path), document);
+
+                assertThat(TreeEvaluator.evaluate(PathParser.parse(path), document, pool, 2)).containsExactlyElementsOf(sequential);
+                assertThat(TreeEvaluator.evaluate(PathParser.parse(path), document, pool, 100)).containsExactlyElementsOf(sequential);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void function_test() {
+        assertEval("$.store.book.length()", "4");
+        assertEval("$.store.bicycle.keys()", "[\"color\",\"price\"]");
+        assertEval("$.store.book[?(@.tags.length() == 2)].price", "22.99");
+        assertThatThrownBy(() -> TreeEvaluator.evaluate(PathParser.parse("$.nope()"), STORE))
+                .isInstanceOf(EvaluationException.class)
+                .hasMessage("Unknown function: nope()");
+    }
+
+    private static void assertEval(String path, String... expected) {
+        List<JsonNode> matches = TreeEvaluator.evaluate(PathParser.parse(path), STORE);
+        assertThat(matches).extracting(JsonNode::toString).containsExactly(expected);
+    }
+}
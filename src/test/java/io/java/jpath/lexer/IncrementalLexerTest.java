@@ -0,0 +1,81 @@
+package io.java.jpath.lexer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncrementalLexerTest {
+
+    private static final String PATH = "$.store.book[?(@.tags == ['a', 'b', 'c'] && @.price < 10)].title[0:2]..x";
+
+    @Test
+    public void edit_relexes_touched_selectors_test() {
+        IncrementalLexer lexer = IncrementalLexer.of(PATH);
+
+        List<LexToken> tokens = lexer.edit(PATH.length() - 1, 1, "name");
+
+        assertThat(tokens).isEqualTo(lex(PATH.substring(0, PATH.length() - 1) + "name"));
+        assertThat(lexer.relexedTokens()).isEqualTo(2);
+
+        tokens = lexer.edit(2, 5, "shop");
+
+        assertThat(tokens).isEqualTo(lex("$.shop.book" + PATH.substring(12, PATH.length() - 1) + "name"));
+        assertThat(lexer.relexedTokens()).isEqualTo(2);
+        assertThat(lexer.text()).isEqualTo("$.shop.book" + PATH.substring(12, PATH.length() - 1) + "name");
+    }
+
+    @Test
+    public void edit_joins_and_splits_selectors_test() {
+        IncrementalLexer lexer = IncrementalLexer.of("$.ab.cd");
+
+        assertThat(lexer.edit(4, 1, "")).isEqualTo(lex("$.abcd"));
+        assertThat(lexer.edit(3, 0, "..")).isEqualTo(lex("$.a..bcd"));
+        assertThat(lexer.edit(0, 0, "  ")).isEqualTo(lex("  $.a..bcd"));
+        assertThat(lexer.edit(10, 0, " ")).isEqualTo(lex("  $.a..bcd "));
+    }
+
+    @Test
+    public void edit_matches_full_lexing_test() {
+        Random random = new Random(7);
+        String[] inserts = {"", ".", "..", "[", "]", "'", "a", "[0]", "['x']", " ", "*", "[?(@.a > 1)]", "(", ")", "1"};
+        for (int run = 0; run < 300; run++) {
+            IncrementalLexer lexer = IncrementalLexer.of(PATH);
+            String text = PATH;
+            for (int edit = 0; edit < 10; edit++) {
+                int offset = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(Math.min(4, text.length() - offset) + 1);
+                String inserted = inserts[random.nextInt(inserts.length)];
+                text = text.substring(0, offset) + inserted + text.substring(offset + removed);
+
+                Object expected = lexOrError(text);
+                Object actual;
+                try {
+                    actual = lexer.edit(offset, removed, inserted);
+                } catch (LexException e) {
+                    actual = e.getMessage();
+                }
+
+                assertThat(actual).as("%s", text).isEqualTo(expected);
+                assertThat(lexer.text()).isEqualTo(text);
+            }
+        }
+    }
+
+    private static Object lexOrError(String path) {
+        try {
+            return lex(path);
+        } catch (LexException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static List<LexToken> lex(String path) {
+        List<LexToken> tokens = new ArrayList<>();
+        PathLexer.lex(Lexer.of(path, tokens::add));
+        return tokens;
+    }
+}
@@ -3,7 +3,10 @@ package io.java.jpath.lexer;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -11,6 +14,7 @@ import static io.java.jpath.lexer.TokenType.PERIOD_TOKEN;
 import static io.java.jpath.lexer.TokenType.SCAN_TOKEN;
 import static io.java.jpath.lexer.Lexer.EOF;
 import static io.java.jpath.lexer.TokenType.*;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class PathLexerTest {
@@ -358,6 +362,215 @@ public class PathLexerTest {
         );
     }
 
+    @Test
+    public void lex_token_sink_test() {
+        String path = "  $.store['book'][0:2]..price  ";
+        List<LexToken> expected = new ArrayList<>();
+        PathLexer.lex(path, (Consumer<LexToken>) expected::add);
+
+        String source = path.trim();
+        List<LexToken> actual = new ArrayList<>();
+        PathLexer.lex(path, (type, start, end) -> actual.add(LexToken.of(type, source.substring(start, end), start, end)));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void lex_token_cursor_test() {
+        List<LexToken> expected = new ArrayList<>();
+        PathLexer.lex("$['a', 'b'][?(@.c == 'd')]", (Consumer<LexToken>) expected::add);
+
+        List<LexToken> actual = new ArrayList<>();
+        List<TokenCursor> cursors = new ArrayList<>();
+        PathLexer.lex("$['a', 'b'][?(@.c == 'd')]", TokenCursor.of(c -> {
+            actual.add(c.toLexToken());
+            cursors.add(c);
+        }));
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(cursors).allMatch(c -> c == cursors.get(0));
+    }
+
+    @Test
+    public void token_cursor_content_test() {
+        List<String> properties = new ArrayList<>();
+        PathLexer.lex("$['ab'].cd.ef", TokenCursor.of(c -> {
+            if (c.is(OBJECT_PROPERTY) || c.is(IDENTIFIER)) {
+                properties.add(c.toString());
+                assertThat(c.contentEquals(c.getToken())).isTrue();
+                assertThat(c.charAt(0)).isEqualTo(c.getToken().charAt(0));
+            }
+        }));
+
+        assertThat(properties).containsExactly("'ab'", "cd", "ef");
+    }
+
+    @Test
+    public void lex_byte_source_test() {
+        String path = "$.caf\u00e9['\u5317\u4eac'][?(@.n == '\ud83d\ude00')]";
+        List<LexToken> expected = new ArrayList<>();
+        PathLexer.lex(path, (Consumer<LexToken>) expected::add);
+
+        byte[] utf8 = ("  " + path + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(utf8.length + 4);
+        direct.put(new byte[2]).put(utf8).flip().position(2);
+
+        for (ByteSource source : Arrays.asList(ByteSource.of(utf8), ByteSource.of(ByteBuffer.wrap(utf8)), ByteSource.of(direct))) {
+            List<TokenType> types = new ArrayList<>();
+            List<String> tokens = new ArrayList<>();
+            PathLexer.lex(source, TokenCursor.of(c -> {
+                types.add(c.type());
+                tokens.add(c.getToken());
+                assertThat(c.contentEquals(c.getToken())).isTrue();
+            }));
+
+            assertThat(types).containsExactlyElementsOf(expected.stream().map(LexToken::type).collect(toList()));
+            assertThat(tokens).containsExactlyElementsOf(expected.stream().map(LexToken::getToken).collect(toList()));
+        }
+        assertThat(direct.position()).isEqualTo(2);
+    }
+
+    @Test
+    public void byte_source_offsets_test() {
+        byte[] bytes = "xx$.a\u00e9.b".getBytes(StandardCharsets.UTF_8);
+        List<int[]> offsets = new ArrayList<>();
+        PathLexer.lex(ByteSource.of(bytes, 2, bytes.length - 2), (type, start, end) -> offsets.add(new int[]{start, end}));
+
+        assertThat(offsets).extracting(o -> o[0] + ":" + o[1]).containsExactly("0:1", "1:2", "2:5", "5:6", "6:7", "7:7");
+
+        ByteSource source = ByteSource.of(bytes, 2, bytes.length - 2);
+        assertThat(source.offset()).isEqualTo(2);
+        assertThat(source.decode(2, 5)).isEqualTo("a\u00e9");
+        assertThat(source.regionEquals(2, 5, "a\u00e9")).isTrue();
+        assertThat(source.regionEquals(2, 5, "ae")).isFalse();
+        assertThat(source.toString()).isEqualTo("$.a\u00e9.b");
+    }
+
+    @Test
+    public void token_buffer_test() {
+        String path = "  $.a['b', \"c\"][?(@.d == [1, {'e': true}])].length() ";
+        List<LexToken> expected = new ArrayList<>();
+        PathLexer.lex(path, expected::add);
+
+        TokenBuffer buffer = TokenBuffer.of(path);
+        assertThat(buffer.source()).isEqualTo(path.trim());
+        assertThat(buffer.size()).isEqualTo(expected.size());
+        assertThat(buffer.tokens()).containsExactlyElementsOf(expected);
+        assertThat(buffer.is(3, OPEN_SELECTOR)).isTrue();
+        assertThat(buffer.type(4)).isEqualTo(OBJECT_PROPERTY);
+        assertThat(buffer.text(4)).isEqualTo("'b'");
+        assertThat(buffer.start(4)).isEqualTo(4);
+        assertThat(buffer.end(4)).isEqualTo(7);
+
+        List<String> replayed = new ArrayList<>();
+        buffer.replay(TokenCursor.of(c -> replayed.add(c.getToken())));
+        assertThat(replayed).containsExactlyElementsOf(expected.stream().map(LexToken::getToken).collect(toList()));
+
+        TokenBuffer utf8 = TokenBuffer.of(ByteSource.of(path.getBytes(StandardCharsets.UTF_8)));
+        assertThat(utf8.tokens()).containsExactlyElementsOf(expected);
+        assertThat(TokenBuffer.of(path.trim(), expected).tokens()).containsExactlyElementsOf(expected);
+
+        TokenBuffer nonAscii = TokenBuffer.of(ByteSource.of("$.caf\u00e9[0]".getBytes(StandardCharsets.UTF_8)));
+        assertThat(nonAscii.text(2)).isEqualTo("caf\u00e9");
+        assertThat(nonAscii.end(nonAscii.size() - 1)).isEqualTo(nonAscii.source().length()).isEqualTo(10);
+    }
+
+    @Test
+    public void validate_reports_every_error_test() {
+        assertThat(PathLexer.validate("$.a[?(@.b == 1)].c[1:2]")).isEmpty();
+
+        assertThat(PathLexer.validate("$.a[foo].b[?(@.c == )].d e.f[1").stream().map(LexDiagnostic::toString))
+                .containsExactly(
+                        "Expected selector predicate at position: 4 but found: f",
+                        "Expected literal at position: 20 but found: )",
+                        "Expected selector at position: 24 but found:  ",
+                        "Expected ] at position: 30 but found: EOP");
+    }
+
+    @Test
+    public void validate_matches_lex_exception_test() {
+        String path = "$.a[?(@.b == 'x].c";
+        List<LexDiagnostic> diagnostics = PathLexer.validate(path);
+        assertThat(diagnostics).hasSize(1);
+        assertLexFail(path, PathLexer::lex, diagnostics.get(0).toString());
+    }
+
+    @Test
+    public void validate_empty_path_test() {
+        assertThat(PathLexer.validate("  ")).containsExactly(LexDiagnostic.of(0, "Lexer source must not be empty", "EOP"));
+    }
+
+    @Test
+    public void recovering_lexer_keeps_tokens_of_valid_steps_test() {
+        List<TokenType> types = new ArrayList<>();
+        List<LexDiagnostic> diagnostics = new ArrayList<>();
+        PathLexer.lex(Lexer.of("$[x].a", (type, start, end) -> types.add(type), diagnostics::add));
+
+        assertThat(types).containsExactly(ROOT_TOKEN, OPEN_SELECTOR, PERIOD_TOKEN, IDENTIFIER, EOP);
+        assertThat(diagnostics).containsExactly(LexDiagnostic.of(2, "Expected selector predicate", "x"));
+        assertThat(LexRecovery.INSTANCE.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void json_value_test() {
+        Lexer lexer = Lexer.of("{'a': [1, -2.5, 'x'], \"b\": {}, 'c': null, 'd': true}", (type, start, end) -> { })
+                .withJsonValues()
+                .acceptJson();
+
+        JsonValue value = lexer.lastJsonValue();
+        assertThat(value.kind()).isEqualTo(JsonValue.Kind.OBJECT);
+        assertThat(value.members().keySet()).containsExactly("a", "b", "c", "d");
+        assertThat(value.members().get("a").elements())
+                .containsExactly(JsonValue.number(1), JsonValue.number(-2.5), JsonValue.string("x"));
+        assertThat(value.members().get("c")).isSameAs(JsonValue.NULL);
+        assertThat(value.members().get("d")).isSameAs(JsonValue.TRUE);
+        assertThat(value.toString()).isEqualTo("{'a': [1, -2.5, 'x'], 'b': {}, 'c': null, 'd': true}");
+
+        assertThat(Lexer.of("[1]", (type, start, end) -> { }).acceptJson().lastJsonValue()).isNull();
+    }
+
+    @Test
+    public void json_value_membership_test() {
+        StringBuilder literal = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            literal.append(i == 0 ? "" : ", ").append("'sku-").append(i).append("', ").append(i);
+        }
+        JsonValue large = Lexer.of(literal.append(", null, [1]]").toString(), (type, start, end) -> { })
+                .withJsonValues()
+                .acceptJson()
+                .lastJsonValue();
+        JsonValue small = JsonValue.array(Arrays.asList(JsonValue.string("a"), JsonValue.number(0), JsonValue.NULL));
+
+        for (JsonValue array : Arrays.asList(large, small)) {
+            assertThat(array.containsNumber(0)).isTrue();
+            assertThat(array.containsNumber(-0.0)).isTrue();
+            assertThat(array.contains(JsonValue.NULL)).isTrue();
+            assertThat(array.contains(JsonValue.FALSE)).isFalse();
+            assertThat(array.containsString("b")).isFalse();
+        }
+        assertThat(large.containsString("sku-1999")).isTrue();
+        assertThat(large.containsNumber(1999.0)).isTrue();
+        assertThat(large.containsString("1999")).isFalse();
+        assertThat(large.contains(JsonValue.array(Arrays.asList(JsonValue.number(1))))).isTrue();
+    }
+
+    @Test
+    public void json_object_members_test() {
+        assertLex("{'a': 1, 'b': 2}", Lexer::acceptJson);
+        assertLexFail("{'a': 1 'b': 2}", Lexer::acceptJson, "Expected } at position: 8 but found: '");
+    }
+
+    @Test
+    public void in_operator_test() {
+        List<LexToken> tokens = new ArrayList<>();
+        PathLexer.lex("$[?(@.a in ['x'] && @.b nin[1] && @.index)]", tokens::add);
+
+        assertThat(tokens.stream().filter(t -> t.type() == OPERATOR).map(LexToken::getToken))
+                .containsExactly("in", "nin");
+        assertThat(tokens.stream().filter(t -> t.type() == JSON_LITERAL).map(LexToken::getToken))
+                .containsExactly("['x']", "[1]");
+    }
+
     //-----------------------------------------------------
     //
     // Helpers
@@ -0,0 +1,50 @@
+package io.java.jpath.lexer;
+
+import io.java.jpath.parser.PathParser;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathNormalizerTest {
+
+    @Test
+    public void equivalent_spellings_test() {
+        assertNormalized("$.a.b", "$.a.b", "$['a']['b']", "$[\"a\"].b", " $[ 'a' ][\"b\" ] ");
+        assertNormalized("$..a[*]", "$..a.*", "$..['a'][ * ]", "$..[\"a\"][*]");
+        assertNormalized("$['a b'].c_1", "$[\"a b\"]['c_1']", "$['a b'].c_1");
+        assertNormalized("$['a',\"it's\"][0]", "$[ 'a' , \"it's\" ][0]");
+        assertNormalized("$[1,2][1:3:2]", "$[1, 2][1 : 3 : 2]");
+        assertNormalized("$.a.length()", "$['a'].length( )");
+        assertNormalized("$[\"it's\"]", "$['it\\'s']", "$[\"it's\"]");
+        assertNormalized("$['a\"b\\'c']", "$[\"a\\\"b'c\"]");
+        assertNormalized("$.ab", "$['a\\u0062']");
+    }
+
+    @Test
+    public void filters_test() {
+        assertNormalized("$[?(@.a == 'x' && !@.b || @.c < 1)]", "$[?(@['a']==\"x\"&& ! @.b ||@.c<1)]");
+        assertNormalized("$[?(@.a == [1,{'b':'c d'}])]", "$[?(@.a == [1, { 'b' : 'c d' }])]");
+        assertNormalized("$[?(@.a =~ /a b/i)]", "$[?( @.a =~ /a b/i )]");
+    }
+
+    @Test
+    public void canonical_form_parses_to_the_same_path_test() {
+        for (String path : new String[]{"$.a['b c'][*]..d", "$[?(@.a>1 || @.b=='x')].c", "$[\"it's\", 'b'][-1:]", "$['a\\\\b\\'c'][?(@.d == \"e'\")]"}) {
+            String canonical = PathNormalizer.normalize(path);
+            assertThat(PathParser.parse(canonical).selectors()).isEqualTo(PathParser.parse(path).selectors());
+            assertThat(PathNormalizer.normalize(canonical)).isEqualTo(canonical);
+        }
+    }
+
+    @Test
+    public void invalid_paths_are_kept_test() {
+        assertThat(PathNormalizer.normalize("$.a b")).isEqualTo("$.a b");
+        assertThat(PathNormalizer.normalize("$.['a']")).isEqualTo("$.['a']");
+    }
+
+    private static void assertNormalized(String expected, String... paths) {
+        for (String path : paths) {
+            assertThat(PathNormalizer.normalize(path)).as(path).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.java.jpath.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HistogramTest {
+
+    @Test
+    public void buckets_cover_every_value_test() {
+        for (long value : new long[]{0, 1, 63, 64, 65, 127, 128, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = Histogram.index(value);
+            assertThat(Histogram.lowest(index)).isLessThanOrEqualTo(value);
+            assertThat(Histogram.highest(index)).isGreaterThanOrEqualTo(value);
+            assertThat(Histogram.highest(index) - Histogram.lowest(index)).isLessThanOrEqualTo(value / 32);
+        }
+        assertThat(Histogram.index(Long.MAX_VALUE)).isEqualTo(Histogram.index(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void percentiles_test() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat(histogram.max()).isEqualTo(1_000_000);
+        assertThat(histogram.mean()).isEqualTo(500_500.0);
+        assertThat(histogram.valueAtPercentile(50)).isBetween(500_000L, 500_000L * 33 / 32);
+        assertThat(histogram.valueAtPercentile(99)).isBetween(990_000L, 990_000L * 33 / 32);
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(1_000_000);
+        assertThat(new Histogram().valueAtPercentile(99)).isZero();
+        assertThatThrownBy(() -> histogram.valueAtPercentile(101)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package io.java.jpath.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.java.jpath.cache.PathCache;
+import io.java.jpath.eval.CompiledPath;
+import io.java.jpath.eval.DocumentIndex;
+import io.java.jpath.eval.StreamingEvaluator;
+import io.java.jpath.eval.TreeEvaluator;
+import io.java.jpath.parser.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs with {@link PathMetrics} installed by the {@code jpath.instrumentation} system property, as the
+ * {@code metricsTest} task does, and is skipped otherwise.
+ */
+public class PathMetricsTest {
+
+    private static final byte[] DOCUMENT = "{'skip': {'a': [1, 2]}, 'items': [{'id': 1, 'x': 1}, {'id': 2}, {'id': 3, 'x': 1}]}"
+            .replace('\'', '"').getBytes(StandardCharsets.UTF_8);
+
+    private final PathMetrics metrics = (PathMetrics) Instrumentations.INSTALLED;
+
+    @BeforeClass
+    public static void installed() {
+        assumeTrue(Instrumentations.INSTALLED instanceof PathMetrics);
+    }
+
+    @Test
+    public void lexing_compilation_and_cache_are_recorded_test() {
+        PathCache<Path> cache = PathCache.paths(10);
+        cache.get("$.lexed_and_compiled[0]");
+        cache.get("$['lexed_and_compiled'][0]");
+        cache.get("$['lexed_and_compiled'][0]");
+        cache.get("$.lexed_and_compiled[0]");
+
+        PathMetrics.Stats stats = metrics.stats("$.lexed_and_compiled[0]");
+        assertThat(stats.lexNanos().count()).isEqualTo(2);
+        assertThat(stats.tokens()).isEqualTo(2 * 7);
+        assertThat(stats.compileNanos().count()).isEqualTo(1);
+        assertThat(metrics.stats("$['lexed_and_compiled'][0]").lexNanos().count()).isEqualTo(1);
+        assertThat(metrics.cacheHitRate()).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    public void tree_evaluation_is_recorded_test() throws Exception {
+        Path path = PathCache.paths(1).get("$.items[?(@.x)].id");
+        TreeEvaluator.evaluate(path, new ObjectMapper().readTree(DOCUMENT));
+
+        PathMetrics.Stats stats = metrics.stats("$.items[?(@.x)].id");
+        assertThat(stats.evaluationNanos().count()).isEqualTo(1);
+        assertThat(stats.matches()).isEqualTo(2);
+        assertThat(stats.skipped()).isEqualTo(1);
+        assertThat(stats.visited()).isEqualTo(6);
+    }
+
+    @Test
+    public void streaming_evaluation_is_recorded_test() {
+        Path path = PathCache.paths(1).get("$.items[*].id");
+        StreamingEvaluator.evaluate(path, DOCUMENT);
+
+        PathMetrics.Stats stats = metrics.stats("$.items[*].id");
+        assertThat(stats.evaluationNanos().count()).isEqualTo(1);
+        assertThat(stats.matches()).isEqualTo(3);
+        assertThat(stats.skipped()).isGreaterThan(0);
+        assertThat(stats.visited()).isGreaterThan(stats.matches());
+    }
+
+    @Test
+    public void compiled_and_indexed_evaluation_is_recorded_test() throws Exception {
+        Path compiled = PathCache.paths(1).get("$.items[?(@.x)].x");
+        CompiledPath.compile(compiled).evaluate(new ObjectMapper().readTree(DOCUMENT));
+
+        PathMetrics.Stats stats = metrics.stats("$.items[?(@.x)].x");
+        assertThat(stats.evaluationNanos().count()).isEqualTo(1);
+        assertThat(stats.matches()).isEqualTo(2);
+
+        DocumentIndex.of(DOCUMENT).evaluate(PathCache.paths(1).get("$.skip..[*]"));
+
+        stats = metrics.stats("$.skip..[*]");
+        assertThat(stats.evaluationNanos().count()).isEqualTo(1);
+        assertThat(stats.matches()).isEqualTo(3);
+        assertThat(stats.visited()).isGreaterThan(stats.matches());
+    }
+}
@@ -0,0 +1,202 @@
+package io.java.jpath.parser;
+
+import io.java.jpath.lexer.ByteSource;
+import io.java.jpath.lexer.LexException;
+import io.java.jpath.lexer.TokenBuffer;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PathParserTest {
+
+    @Test
+    public void dot_and_bracket_properties_test() {
+        assertParse("$.store.book", "[['store'], ['book']]");
+        assertParse("$['store']['book']", "[['store'], ['book']]");
+        assertParse("$[\"store\"].book", "[['store'], ['book']]");
+        assertParse("$['a', 'b']", "[['a', 'b']]");
+        assertParse("$", "[]");
+
+        Path path = PathParser.parse("$['a', \"b c\"]");
+        PropertySelector selector = (PropertySelector) path.selector(0);
+        assertThat(selector.names()).containsExactly("a", "b c");
+        assertThat(path.isAbsolute()).isTrue();
+        assertThat(path.isDefinite()).isFalse();
+    }
+
+    @Test
+    public void wildcard_and_scan_test() {
+        assertParse("$.store.*", "[['store'], [*]]");
+        assertParse("$[*]", "[[*]]");
+        assertParse("$..author", "[.., ['author']]");
+        assertParse("$..*", "[.., [*]]");
+        assertParse("$..[0]", "[.., [0]]");
+        assertParse("$..['a']", "[.., ['a']]");
+    }
+
+    @Test
+    public void array_indices_test() {
+        assertParse("$[0]", "[[0]]");
+        assertParse("$[-1]", "[[-1]]");
+        assertParse("$[1, 6, 7]", "[[1, 6, 7]]");
+
+        IndexSelector selector = (IndexSelector) PathParser.parse("$[1, -2, 7]").selector(0);
+        assertThat(selector.count()).isEqualTo(3);
+        assertThat(selector.maxIndex()).isEqualTo(7);
+        assertThat(selector.needsLength()).isTrue();
+        assertThat(selector.resolve(1, 10)).isEqualTo(8);
+        assertThat(PathParser.parse("$.a[0].b").isDefinite()).isTrue();
+    }
+
+    @Test
+    public void array_slice_test() {
+        assertParse("$[:1]", "[[:1:1]]");
+        assertParse("$[::]", "[[::1]]");
+        assertParse("$[-1:]", "[[-1::1]]");
+        assertParse("$[0 : -1 : 2]", "[[0:-1:2]]");
+        assertParse("$[::-1]", "[[::-1]]");
+
+        SliceSelector slice = (SliceSelector) PathParser.parse("$[1:7:2]").selector(0);
+        assertThat(slice.needsLength()).isFalse();
+        assertThat(slice.matches(3)).isTrue();
+        assertThat(slice.matches(4)).isFalse();
+        assertThat(slice.matches(7)).isFalse();
+        assertThat(slice.upperBound()).isEqualTo(7);
+
+        SliceSelector reverse = (SliceSelector) PathParser.parse("$[::-1]").selector(0);
+        assertThat(reverse.needsLength()).isTrue();
+        assertThat(reverse.from(5)).isEqualTo(4);
+        assertThat(reverse.to(5)).isEqualTo(-1);
+
+        SliceSelector tail = (SliceSelector) PathParser.parse("$[-2:]").selector(0);
+        assertThat(tail.from(5)).isEqualTo(3);
+        assertThat(tail.to(5)).isEqualTo(5);
+        assertThat(tail.from(1)).isEqualTo(0);
+    }
+
+    @Test
+    public void function_test() {
+        assertParse("$.length()", "[.length()]");
+        assertParse("$.a.max()", "[['a'], .max()]");
+        assertParse("$.a.append(1, 'b', @.c)", "[['a'], .append(1, 'b', @.c)]");
+    }
+
+    @Test
+    public void filter_test() {
+        assertParse("$.book[?(@.price < 10)]", "[['book'], [?(@.price < 10)]]");
+        assertParse("$[?(@.isbn)]", "[[?(@.isbn)]]");
+        assertParse("$[?(@['b a z'] =~ /b.*/i)]", "[[?(@['b a z'] =~ /b.*/i)]]");
+        assertParse("$[?(@.a == $.b)]", "[[?(@.a == $.b)]]");
+        assertParse("$[?(@.tags == ['a', 'b'])]", "[[?(@.tags == ['a', 'b'])]]");
+
+        FilterSelector filter = (FilterSelector) PathParser.parse("$[?(@.price <= 8.95)]").selector(0);
+        ComparisonExpression comparison = (ComparisonExpression) filter.predicate();
+        assertThat(comparison.operator()).isEqualTo(Operator.LE);
+        assertThat(comparison.left().asPath().selectors()).hasSize(1);
+        assertThat(comparison.left().asPath().isAbsolute()).isFalse();
+        assertThat(comparison.right().asLiteral().numberValue()).isEqualTo(8.95);
+
+        Literal regex = ((ComparisonExpression) ((FilterSelector) PathParser.parse("$[?(@.a =~ /x.*/i)]").selector(0))
+                .predicate()).right().asLiteral();
+        assertThat(regex.stringValue()).isEqualTo("x.*");
+        assertThat(regex.isCaseInsensitive()).isTrue();
+    }
+
+    @Test
+    public void filter_precedence_test() {
+        assertParse("$[?(true && false || true)]", "[[?(((true && false) || true))]]");
+        assertParse("$[?(true || false && true)]", "[[?((true || (false && true)))]]");
+        assertParse("$[?(!(true && 1 == 1))]", "[[?(!(true && 1 == 1))]]");
+        assertParse("$[?(!!@.bar)]", "[[?(!!@.bar)]]");
+        assertParse("$[?(@.a == 1 && @.b != 'x' || !@.c)]", "[[?(((@.a == 1 && @.b != 'x') || !@.c))]]");
+    }
+
+    @Test
+    public void nested_filter_test() {
+        Path path = PathParser.parse("$.a[?(@.b[?(@.c > 1)])].d");
+
+        assertThat(path.selectors()).hasSize(3);
+        OperandExpression exists = (OperandExpression) ((FilterSelector) path.selector(1)).predicate();
+        Path inner = exists.operand().asPath();
+        assertThat(inner.source()).isEqualTo("@.b[?(@.c > 1)]");
+        assertThat(inner.selector(1).type()).isEqualTo(SelectorType.FILTER);
+    }
+
+    @Test
+    public void escaped_names_test() {
+        PropertySelector property = (PropertySelector) PathParser.parse("$['it\\'s', \"a\\\"b\", 'caf\\u00e9', 'x\\qy']").selector(0);
+
+        assertThat(property.names()).containsExactly("it's", "a\"b", "caf\u00e9", "x\\qy");
+        assertThat(property.hash(2)).isEqualTo("caf\u00e9".hashCode());
+        assertThat(property.matches("caf\u00e9")).isTrue();
+        assertThat(property.matches("cafe")).isFalse();
+        byte[] key = "{\"caf\u00e9\": 1}".getBytes(StandardCharsets.UTF_8);
+        int hash = PropertySelector.hash(key, 2, 7);
+        assertThat(hash).isEqualTo(PropertySelector.hash("caf\u00e9".getBytes(StandardCharsets.UTF_8), 0, 5));
+        assertThat(PropertySelector.hash(key, 2, 5)).isEqualTo("caf".hashCode());
+        assertThat(property.matches(2, key, 2, 7)).isTrue();
+        assertThat(property.matches(2, hash, key, 2, 7)).isTrue();
+        assertThat(property.matches(2, hash + 1, key, 2, 7)).isFalse();
+        assertThat(property.matches(0, key, 2, 7)).isFalse();
+
+        String nonAscii = "$['caf\u00e9\\'s', '\u00fc\\q\u00e9\\u00e8'][?(@.a == ['\u00e9\\t\u00e0'])]";
+        Path utf8 = PathParser.parse(TokenBuffer.of(ByteSource.of(nonAscii.getBytes(StandardCharsets.UTF_8))));
+        assertThat(((PropertySelector) utf8.selector(0)).names()).containsExactly("caf\u00e9's", "\u00fc\\q\u00e9\u00e8");
+        assertThat(utf8.selectors()).isEqualTo(PathParser.parse(nonAscii).selectors());
+        assertThat(((ComparisonExpression) ((FilterSelector) utf8.selector(1)).predicate()).right().asLiteral().jsonValue()
+                .elements().get(0).stringValue()).isEqualTo("\u00e9\t\u00e0");
+
+        Literal literal = ((ComparisonExpression) ((FilterSelector) PathParser.parse("$[?(@.a == 'x\\'y\\n')]").selector(0))
+                .predicate()).right().asLiteral();
+        assertThat(literal.stringValue()).isEqualTo("x'y\n");
+    }
+
+    @Test
+    public void parse_errors_test() {
+        assertParseFail("foo.bar", "Expected $ or @ at position: 0 but found: foo");
+        assertParseFail("$.a b", "Unexpected input at position: 3");
+        assertParseFail("$[1.5]", "Expected integer at position: 2 but found: 1.5");
+        assertParseFail("$[::0]", "Slice step must not be 0 at position: 3 but found: :");
+        assertParseFail("$.length().a", "Expected end of path after function at position: 10 but found: .");
+        assertParseFail("$[?(@.a = 1)]", "Unknown operator at position: 8 but found: =");
+        assertParseFail("$[?(@.a == /x/)]", "Expected =~ before regex at position: 11 but found: /x/");
+        assertParseFail("$[?(@.a =~ 'x')]", "Expected regex after =~ at position: 11 but found: 'x'");
+        assertParseFail("$foo", "Expected . or [ at position: 1 but found: foo");
+        assertParseFail("$[?(@.a in 'x')]", "Expected array after in at position: 11 but found: 'x'");
+        assertParseFail("$[?(@.a nin {'x': 1})]", "Expected array after nin at position: 12 but found: {'x': 1}");
+
+        assertThatThrownBy(() -> PathParser.parse("$[]")).isInstanceOf(LexException.class);
+    }
+
+    @Test
+    public void parse_token_buffer_test() {
+        String path = "$.store.book[?(@.price < 10)].title";
+        Path parsed = PathParser.parse(TokenBuffer.of(ByteSource.of(path.getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(parsed.source()).isEqualTo(path);
+        assertThat(parsed.selectors()).isEqualTo(PathParser.parse(path).selectors());
+
+        String nonAscii = "$.caf\u00e9['\u00fcber'][0]";
+        Path decoded = PathParser.parse(TokenBuffer.of(ByteSource.of(nonAscii.getBytes(StandardCharsets.UTF_8))));
+        assertThat(decoded.source()).isEqualTo(nonAscii);
+        assertThat(decoded.selectors()).isEqualTo(PathParser.parse(nonAscii).selectors());
+        assertThatThrownBy(() -> PathParser.parse(TokenBuffer.of(ByteSource.of("$.caf\u00e9 b".getBytes(StandardCharsets.UTF_8)))))
+                .isInstanceOf(ParseException.class)
+                .hasMessage("Unexpected input at position: 7");
+    }
+
+    private static void assertParse(String path, String selectors) {
+        Path parsed = PathParser.parse(path);
+        assertThat(parsed.selectors().toString()).isEqualTo(selectors);
+        assertThat(parsed.source()).isEqualTo(path.trim());
+    }
+
+    private static void assertParseFail(String path, String message) {
+        assertThatThrownBy(() -> PathParser.parse(path))
+                .isInstanceOf(ParseException.class)
+                .hasMessage(message);
+    }
+}